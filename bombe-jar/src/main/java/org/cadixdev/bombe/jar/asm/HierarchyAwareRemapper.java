@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.jar.asm;
+
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.bombe.analysis.MemberResolver;
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+import org.objectweb.asm.commons.Remapper;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link Remapper} that resolves field and method references to the
+ * class declaring them before looking up their mapping, so that implementations
+ * need only provide mappings for declared members.
+ *
+ * <p>Where a method declaration has no mapping, the mapping of a method it
+ * overrides is used instead - the closest such method, looking at super
+ * classes before interfaces, and at interfaces in the order they are
+ * declared.</p>
+ *
+ * <p>Results are memoized per owner, name and descriptor, so repeated
+ * references to the same member are a single lookup.</p>
+ *
+ * @since 0.5.0
+ */
+public abstract class HierarchyAwareRemapper extends Remapper {
+
+    protected final InheritanceProvider inheritanceProvider;
+    private final MemberResolver resolver;
+    private final ConcurrentMap<Key, String> fields = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Key, String> methods = new ConcurrentHashMap<>();
+
+    protected HierarchyAwareRemapper(final InheritanceProvider inheritanceProvider) {
+        this.inheritanceProvider = inheritanceProvider;
+        this.resolver = new MemberResolver(inheritanceProvider);
+    }
+
+    /**
+     * Gets the mapped name of a field, as declared by the given class.
+     *
+     * @param owner The class declaring the field
+     * @param name The name of the field
+     * @param descriptor The descriptor of the field
+     * @return The mapped name, or {@code null} if the field isn't mapped
+     */
+    protected abstract String mapDeclaredFieldName(final String owner, final String name, final String descriptor);
+
+    /**
+     * Gets the mapped name of a method, as declared by the given class.
+     *
+     * @param owner The class declaring the method
+     * @param name The name of the method
+     * @param descriptor The descriptor of the method
+     * @return The mapped name, or {@code null} if the method isn't mapped
+     */
+    protected abstract String mapDeclaredMethodName(final String owner, final String name, final String descriptor);
+
+    @Override
+    public String mapFieldName(final String owner, final String name, final String descriptor) {
+        final Key key = new Key(owner, name, descriptor);
+        final String cached = this.fields.get(key);
+        if (cached != null) return cached;
+
+        final String declaring = this.resolver.resolveField(owner, FieldSignature.of(name, descriptor))
+                .map(InheritanceProvider.ClassInfo::getName)
+                .orElse(owner);
+        final String mapped = this.mapDeclaredFieldName(declaring, name, descriptor);
+        return cache(this.fields, key, mapped != null ? mapped : name);
+    }
+
+    @Override
+    public String mapMethodName(final String owner, final String name, final String descriptor) {
+        // Constructors and class initialisers are never renamed
+        if (name.startsWith("<")) return name;
+
+        final Key key = new Key(owner, name, descriptor);
+        final String cached = this.methods.get(key);
+        if (cached != null) return cached;
+
+        final String mapped = this.resolveMethodName(owner, name, descriptor);
+        return cache(this.methods, key, mapped != null ? mapped : name);
+    }
+
+    private String resolveMethodName(final String owner, final String name, final String descriptor) {
+        final InheritanceProvider.ClassInfo info = this.inheritanceProvider.provide(owner).orElse(null);
+        if (info == null) return this.mapDeclaredMethodName(owner, name, descriptor);
+
+        final MethodSignature signature = MethodSignature.of(name, descriptor);
+        final Optional<InheritanceProvider.ClassInfo> resolved = info.isInterface() ?
+                this.resolver.resolveInterfaceMethod(owner, signature) :
+                this.resolver.resolveMethod(owner, signature);
+        if (!resolved.isPresent()) return this.mapDeclaredMethodName(owner, name, descriptor);
+
+        final InheritanceProvider.ClassInfo declaring = resolved.get();
+        final String mapped = this.mapDeclaredMethodName(declaring.getName(), name, descriptor);
+        if (mapped != null) return mapped;
+
+        // Fall back to the mapping of an overridden method, looking at the
+        // super classes first, then at interfaces breadth-first in the order
+        // they are declared, so the choice is stable between runs
+        final Set<String> visited = new HashSet<>();
+        visited.add(declaring.getName());
+        final Deque<InheritanceProvider.ClassInfo> queue = new ArrayDeque<>();
+        queue.add(declaring);
+
+        for (InheritanceProvider.ClassInfo current = declaring; !current.getSuperName().isEmpty(); ) {
+            if (!visited.add(current.getSuperName())) break;
+
+            final InheritanceProvider.ClassInfo parent = this.inheritanceProvider.provide(current.getSuperName()).orElse(null);
+            if (parent == null) break;
+            queue.add(parent);
+
+            final String parentMapped = this.mapOverriddenMethodName(declaring, parent, signature, name, descriptor);
+            if (parentMapped != null) return parentMapped;
+            current = parent;
+        }
+
+        while (!queue.isEmpty()) {
+            for (final String iface : queue.poll().getInterfaces()) {
+                if (!visited.add(iface)) continue;
+
+                final InheritanceProvider.ClassInfo parent = this.inheritanceProvider.provide(iface).orElse(null);
+                if (parent == null) continue;
+                queue.add(parent);
+
+                final String parentMapped = this.mapOverriddenMethodName(declaring, parent, signature, name, descriptor);
+                if (parentMapped != null) return parentMapped;
+            }
+        }
+        return null;
+    }
+
+    private String mapOverriddenMethodName(final InheritanceProvider.ClassInfo declaring, final InheritanceProvider.ClassInfo parent,
+            final MethodSignature signature, final String name, final String descriptor) {
+        if (!declaring.overrides(signature, parent)) return null;
+        return this.mapDeclaredMethodName(parent.getName(), name, descriptor);
+    }
+
+    private static String cache(final ConcurrentMap<Key, String> cache, final Key key, final String mapped) {
+        final String existing = cache.putIfAbsent(key, mapped);
+        return existing != null ? existing : mapped;
+    }
+
+    /**
+     * A reference to a member, as it appears in a class file.
+     */
+    private static final class Key {
+
+        private final String owner;
+        private final String name;
+        private final String descriptor;
+
+        Key(final String owner, final String name, final String descriptor) {
+            this.owner = owner;
+            this.name = name;
+            this.descriptor = descriptor;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            final Key that = (Key) obj;
+            return Objects.equals(this.owner, that.owner) &&
+                    Objects.equals(this.name, that.name) &&
+                    Objects.equals(this.descriptor, that.descriptor);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.owner, this.name, this.descriptor);
+        }
+
+    }
+
+}
@@ -38,6 +38,8 @@ import org.cadixdev.bombe.jar.JarManifestEntry;
 import org.cadixdev.bombe.jar.JarResourceEntry;
 import org.cadixdev.bombe.jar.JarServiceProviderConfigurationEntry;
 import org.cadixdev.bombe.jar.ServiceProviderConfiguration;
+import org.cadixdev.bombe.jar.jfr.JarEntryTransformEvent;
+import org.cadixdev.bombe.jfr.FlightRecorderSupport;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.ClassWriter;
@@ -76,6 +78,17 @@ public class JarEntryRemappingTransformer implements JarEntryTransformer {
 
     @Override
     public JarClassEntry transform(final JarClassEntry entry) {
+        if (FlightRecorderSupport.isAvailable()) {
+            final JarEntryTransformEvent event = new JarEntryTransformEvent();
+            event.begin();
+            final JarClassEntry transformed = this.remap(entry);
+            event.complete(entry.getName(), this.getClass(), entry.getContents().length);
+            return transformed;
+        }
+        return this.remap(entry);
+    }
+
+    private JarClassEntry remap(final JarClassEntry entry) {
         // Remap the class
         final ClassReader reader = new ClassReader(entry.getContents());
         final ClassWriter writer = new ClassWriter(reader, 0);
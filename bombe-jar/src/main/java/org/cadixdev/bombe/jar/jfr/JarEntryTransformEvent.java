@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.jar.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.cadixdev.bombe.jar.JarEntryTransformer;
+import org.cadixdev.bombe.jfr.FlightRecorderSupport;
+
+/**
+ * An event recording a jar entry being transformed by a
+ * {@link JarEntryTransformer}.
+ *
+ * <p>Only create this event once
+ * {@link FlightRecorderSupport#isAvailable()} has been checked.</p>
+ *
+ * @since 0.5.0
+ */
+@Name("org.cadixdev.bombe.JarEntryTransform")
+@Label("Jar Entry Transformed")
+@Category("Bombe")
+@Description("Jar entry transformed")
+@StackTrace(false)
+public class JarEntryTransformEvent extends Event {
+
+    @Label("Entry")
+    String entryName;
+
+    @Label("Transformer")
+    Class<?> transformer;
+
+    @Label("Size")
+    @DataAmount
+    int size;
+
+    /**
+     * Completes the event, committing it if enabled.
+     *
+     * @param entryName The name of the entry
+     * @param transformer The transformer
+     * @param size The size of the entry, in bytes
+     */
+    public void complete(final String entryName, final Class<?> transformer, final int size) {
+        if (!this.shouldCommit()) return;
+        this.entryName = entryName;
+        this.transformer = transformer;
+        this.size = size;
+        this.commit();
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.jar.test.asm
+
+import org.cadixdev.bombe.analysis.InheritanceProvider
+import org.cadixdev.bombe.analysis.InheritanceType
+import org.cadixdev.bombe.jar.asm.HierarchyAwareRemapper
+import org.cadixdev.bombe.type.signature.FieldSignature
+import org.cadixdev.bombe.type.signature.MethodSignature
+import spock.lang.Specification
+
+/**
+ * Tests for {@link HierarchyAwareRemapper}.
+ */
+class HierarchyAwareRemapperSpec extends Specification {
+
+    private static final FieldSignature FIELD = FieldSignature.of('f', 'I')
+    private static final MethodSignature RUN = MethodSignature.of('run()V')
+
+    private static final Map<String, InheritanceProvider.ClassInfo> CLASSES = [
+            'java/lang/Object': info('java/lang/Object', '', [:], [:]),
+            'a'               : info('a', 'java/lang/Object', [(FIELD): InheritanceType.PUBLIC], [(RUN): InheritanceType.PUBLIC]),
+            'b'               : info('b', 'a', [:], [(RUN): InheritanceType.PUBLIC]),
+            'c'               : info('c', 'b', [:], [:]),
+            'i'               : info('i', 'java/lang/Object', [:], [(RUN): InheritanceType.PUBLIC], [], true),
+            'j'               : info('j', 'java/lang/Object', [:], [(RUN): InheritanceType.PUBLIC], [], true),
+            'k'               : info('k', 'java/lang/Object', [:], [(RUN): InheritanceType.PUBLIC], ['j', 'i']),
+            'l'               : info('l', 'java/lang/Object', [:], [(RUN): InheritanceType.PUBLIC], ['i', 'j']),
+            'm'               : info('m', 'b', [:], [(RUN): InheritanceType.PUBLIC], ['j']),
+    ]
+
+    private static final Map<String, String> MAPPINGS = [
+            'a.f:I'   : 'field',
+            'a.run()V': 'execute',
+            'i.run()V': 'first',
+            'j.run()V': 'second',
+    ]
+
+    private final List<String> lookups = []
+    private final HierarchyAwareRemapper remapper =
+            new HierarchyAwareRemapper({ String klass -> Optional.ofNullable(CLASSES[klass]) } as InheritanceProvider) {
+                @Override
+                protected String mapDeclaredFieldName(final String owner, final String name, final String descriptor) {
+                    lookups << owner
+                    MAPPINGS["$owner.$name:$descriptor" as String]
+                }
+
+                @Override
+                protected String mapDeclaredMethodName(final String owner, final String name, final String descriptor) {
+                    lookups << owner
+                    MAPPINGS["$owner.$name$descriptor" as String]
+                }
+            }
+
+    def "maps inherited fields"(final String owner) {
+        expect:
+        this.remapper.mapFieldName(owner, 'f', 'I') == 'field'
+
+        where:
+        owner << ['a', 'b', 'c']
+    }
+
+    def "maps inherited and overriding methods"(final String owner) {
+        expect:
+        this.remapper.mapMethodName(owner, 'run', '()V') == 'execute'
+
+        where:
+        owner << ['a', 'b', 'c']
+    }
+
+    def "falls back to overridden methods in a stable order"(final String owner, final String expected) {
+        expect:
+        this.remapper.mapMethodName(owner, 'run', '()V') == expected
+
+        where:
+        owner | expected
+        'k'   | 'second' // interfaces in declaration order
+        'l'   | 'first'
+        'm'   | 'execute' // super classes before interfaces
+    }
+
+    def "leaves unmapped members"() {
+        expect:
+        this.remapper.mapMethodName('c', 'stop', '()V') == 'stop'
+        this.remapper.mapFieldName('z', 'f', 'I') == 'f'
+        this.remapper.mapMethodName('c', '<init>', '()V') == '<init>'
+    }
+
+    def "memoizes lookups"() {
+        given:
+        this.remapper.mapMethodName('c', 'run', '()V')
+        final int lookups = this.lookups.size()
+
+        when:
+        this.remapper.mapMethodName('c', 'run', '()V')
+
+        then:
+        this.lookups.size() == lookups
+    }
+
+    static InheritanceProvider.ClassInfo info(final String name, final String superName,
+            final Map<FieldSignature, InheritanceType> fields, final Map<MethodSignature, InheritanceType> methods,
+            final List<String> interfaces = [], final boolean isInterface = false) {
+        final Map<String, InheritanceType> fieldsByName = fields.collectEntries { k, v -> [(k.name): v] }
+        new InheritanceProvider.ClassInfo.Impl(name, isInterface, superName, interfaces, fields, fieldsByName, methods)
+    }
+
+}
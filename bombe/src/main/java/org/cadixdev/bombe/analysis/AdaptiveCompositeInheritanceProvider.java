@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A composite {@link InheritanceProvider}, like
+ * {@link CompositeInheritanceProvider}, that adapts to the providers it is
+ * composed of to avoid querying providers that can't answer a request.
+ *
+ * <ul>
+ *     <li>Misses are cached per provider, so a provider is usually only
+ *         asked once for a class it couldn't provide. At most
+ *         {@value #MAX_MISSES} misses are kept per provider.</li>
+ *     <li>Optionally, the providers are reordered. The provider that last
+ *         answered a request for a class in each package is tried first for
+ *         other classes in that package, and the providers are periodically
+ *         sorted by the number of requests they have answered.</li>
+ * </ul>
+ *
+ * <p>Without reordering, the providers are always queried in the order
+ * they were installed in, so a class is provided by the first provider
+ * that can provide it, exactly as with {@link CompositeInheritanceProvider}.
+ * With reordering, the order is no longer fixed, so the providers should
+ * not provide the same classes.</p>
+ *
+ * <p>As misses are cached, the providers should not be expected to provide
+ * new classes over time - {@link #clearMisses()} can be used if they do.</p>
+ *
+ * @since 0.5.0
+ */
+public class AdaptiveCompositeInheritanceProvider implements InheritanceProvider {
+
+    /**
+     * The number of requests between each reordering of the providers.
+     */
+    private static final int REORDER_INTERVAL = 1024;
+
+    /**
+     * The maximum number of misses cached for each provider.
+     */
+    public static final int MAX_MISSES = 8192;
+
+    private final boolean reorder;
+    private final ConcurrentMap<String, Delegate> routes = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile Delegate[] delegates = new Delegate[0];
+
+    /**
+     * Creates a new adaptive provider, composed of the given providers.
+     *
+     * @param providers The providers, in order of priority
+     * @param reorder Whether the providers may be reordered
+     */
+    public AdaptiveCompositeInheritanceProvider(final List<InheritanceProvider> providers, final boolean reorder) {
+        this.reorder = reorder;
+        providers.forEach(this::install);
+    }
+
+    public AdaptiveCompositeInheritanceProvider(final List<InheritanceProvider> providers) {
+        this(providers, false);
+    }
+
+    public AdaptiveCompositeInheritanceProvider(final boolean reorder) {
+        this(Collections.emptyList(), reorder);
+    }
+
+    public AdaptiveCompositeInheritanceProvider() {
+        this(false);
+    }
+
+    /**
+     * Adds an {@link InheritanceProvider} that can be used for obtaining class
+     * information, with a lower priority than those already installed.
+     *
+     * @param provider The inheritance provider
+     * @return {@code this}, for chaining
+     */
+    public synchronized AdaptiveCompositeInheritanceProvider install(final InheritanceProvider provider) {
+        final Delegate[] delegates = Arrays.copyOf(this.delegates, this.delegates.length + 1);
+        delegates[delegates.length - 1] = new Delegate(provider);
+        this.delegates = delegates;
+        return this;
+    }
+
+    /**
+     * Clears the cached misses of all the providers.
+     */
+    public void clearMisses() {
+        for (final Delegate delegate : this.delegates) {
+            delegate.misses.clear();
+        }
+    }
+
+    @Override
+    public Optional<ClassInfo> provide(final String klass) {
+        return this.provide(klass, (Object) null);
+    }
+
+    @Override
+    public Optional<ClassInfo> provide(final String klass, final Object context) {
+        final String pkg = getPackage(klass);
+        for (final Delegate delegate : this.candidates(klass, pkg)) {
+            final Optional<ClassInfo> info = context != null ?
+                    delegate.provider.provide(klass, context) :
+                    delegate.provider.provide(klass);
+            if (this.record(delegate, klass, pkg, info)) return info;
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public CompletableFuture<Optional<ClassInfo>> provideAsync(final String klass) {
+        final String pkg = getPackage(klass);
+        return this.provideAsync(klass, pkg, this.candidates(klass, pkg), 0);
+    }
+
+    private CompletableFuture<Optional<ClassInfo>> provideAsync(final String klass, final String pkg, final List<Delegate> candidates,
+            final int index) {
+        if (index >= candidates.size()) return CompletableFuture.completedFuture(Optional.empty());
+
+        final Delegate delegate = candidates.get(index);
+        return delegate.provider.provideAsync(klass).thenCompose(info -> {
+            if (this.record(delegate, klass, pkg, info)) return CompletableFuture.completedFuture(info);
+            return this.provideAsync(klass, pkg, candidates, index + 1);
+        });
+    }
+
+    /**
+     * Gets the providers to query for the given class, in order.
+     *
+     * @param klass The class name
+     * @param pkg The package of the class
+     * @return The providers to query
+     */
+    private List<Delegate> candidates(final String klass, final String pkg) {
+        if (this.reorder && this.requests.incrementAndGet() % REORDER_INTERVAL == 0) {
+            this.reorder();
+        }
+
+        final Delegate[] delegates = this.delegates;
+        final List<Delegate> candidates = new ArrayList<>(delegates.length);
+
+        // The route may only jump the queue when the order isn't fixed, as
+        // a provider of higher priority could otherwise provide the class
+        final Delegate route = this.reorder ? this.routes.get(pkg) : null;
+        if (route != null && !route.misses.contains(klass)) {
+            candidates.add(route);
+        }
+        for (final Delegate delegate : delegates) {
+            if (delegate != route && !delegate.misses.contains(klass)) {
+                candidates.add(delegate);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Records the result of querying the given provider.
+     *
+     * @param delegate The provider
+     * @param klass The class name
+     * @param pkg The package of the class
+     * @param info The result
+     * @return {@code true} if the provider answered the request
+     */
+    private boolean record(final Delegate delegate, final String klass, final String pkg, final Optional<ClassInfo> info) {
+        if (!info.isPresent()) {
+            delegate.miss(klass);
+            return false;
+        }
+
+        delegate.hits.increment();
+        if (this.reorder) {
+            this.routes.put(pkg, delegate);
+        }
+        return true;
+    }
+
+    private synchronized void reorder() {
+        final Delegate[] delegates = this.delegates.clone();
+        // Stable, so providers with equal hits keep their installation order
+        Arrays.sort(delegates, Comparator.comparingLong((Delegate delegate) -> delegate.hits.sum()).reversed());
+        this.delegates = delegates;
+    }
+
+    private static String getPackage(final String klass) {
+        final int classIndex = klass.lastIndexOf('/');
+        return classIndex >= 0 ? klass.substring(0, classIndex) : "";
+    }
+
+    private static final class Delegate {
+
+        private final InheritanceProvider provider;
+        private final Set<String> misses = ConcurrentHashMap.newKeySet();
+        private final LongAdder hits = new LongAdder();
+
+        Delegate(final InheritanceProvider provider) {
+            this.provider = provider;
+        }
+
+        void miss(final String klass) {
+            // Start over rather than track the age of each miss - a class
+            // missed again is simply cached again
+            if (this.misses.size() >= MAX_MISSES) {
+                this.misses.clear();
+            }
+            this.misses.add(klass);
+        }
+
+    }
+
+}
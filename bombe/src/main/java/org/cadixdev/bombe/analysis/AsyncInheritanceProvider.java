@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * An {@link InheritanceProvider} that wraps another, blocking,
+ * {@link InheritanceProvider}, running its requests on an {@link Executor}
+ * when they are made {@link #provideAsync(String) asynchronously}.
+ *
+ * <p>Wrapping this provider with a {@link CachingInheritanceProvider}
+ * allows concurrent asynchronous requests for the same class to share a
+ * single request to the wrapped provider.</p>
+ *
+ * @since 0.5.0
+ */
+public class AsyncInheritanceProvider implements InheritanceProvider {
+
+    private final InheritanceProvider provider;
+    private final Executor executor;
+
+    public AsyncInheritanceProvider(final InheritanceProvider provider, final Executor executor) {
+        this.provider = provider;
+        this.executor = executor;
+    }
+
+    public AsyncInheritanceProvider(final InheritanceProvider provider) {
+        this(provider, ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public Optional<ClassInfo> provide(final String klass) {
+        return this.provider.provide(klass);
+    }
+
+    @Override
+    public Optional<ClassInfo> provide(final String klass, final Object context) {
+        return this.provider.provide(klass, context);
+    }
+
+    @Override
+    public CompletableFuture<Optional<ClassInfo>> provideAsync(final String klass) {
+        return CompletableFuture.supplyAsync(() -> this.provider.provide(klass), this.executor);
+    }
+
+}
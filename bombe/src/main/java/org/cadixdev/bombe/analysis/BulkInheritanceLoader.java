@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads the class information for a collection of classes, and all of
+ * their parents, in parallel on an {@link Executor}.
+ *
+ * @see InheritanceProvider#provideAll(Collection, Executor)
+ */
+final class BulkInheritanceLoader {
+
+    private final InheritanceProvider provider;
+    private final Executor executor;
+
+    private final ConcurrentMap<String, InheritanceProvider.ClassInfo> result = new ConcurrentHashMap<>();
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    // Starts at one, so the loader can't complete while classes are still being submitted
+    private final AtomicInteger pending = new AtomicInteger(1);
+
+    BulkInheritanceLoader(final InheritanceProvider provider, final Executor executor) {
+        this.provider = provider;
+        this.executor = executor;
+    }
+
+    Map<String, InheritanceProvider.ClassInfo> load(final Collection<String> klasses) {
+        for (final String klass : klasses) {
+            this.submit(klass);
+        }
+        this.release();
+
+        try {
+            this.done.join();
+        }
+        catch (final CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) throw (RuntimeException) ex.getCause();
+            if (ex.getCause() instanceof Error) throw (Error) ex.getCause();
+            throw ex;
+        }
+        return Collections.unmodifiableMap(this.result);
+    }
+
+    private void submit(final String klass) {
+        if (klass.isEmpty() || !this.seen.add(klass)) return;
+
+        this.pending.incrementAndGet();
+        try {
+            this.executor.execute(() -> this.load(klass));
+        }
+        catch (final RuntimeException ex) {
+            this.done.completeExceptionally(ex);
+            this.release();
+        }
+    }
+
+    private void load(final String klass) {
+        try {
+            if (this.done.isDone()) return;
+
+            this.provider.provide(klass).ifPresent(info -> {
+                this.result.put(klass, info);
+
+                // Queue the parents as soon as they are known
+                this.submit(info.getSuperName());
+                for (final String iface : info.getInterfaces()) {
+                    this.submit(iface);
+                }
+            });
+        }
+        catch (final Throwable ex) {
+            this.done.completeExceptionally(ex);
+        }
+        finally {
+            this.release();
+        }
+    }
+
+    private void release() {
+        if (this.pending.decrementAndGet() == 0) {
+            this.done.complete(null);
+        }
+    }
+
+}
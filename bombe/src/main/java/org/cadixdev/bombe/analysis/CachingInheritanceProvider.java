@@ -30,22 +30,56 @@
 
 package org.cadixdev.bombe.analysis;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * An {@link InheritanceProvider} that wraps another {@link InheritanceProvider}
  * and caches all requests. If information is needed more than once, use of this
  * class is recommended to improve performance.
  *
+ * <p>The cache is safe for concurrent use, provided the wrapped provider
+ * is. A class may be requested from the wrapped provider more than once
+ * when it is first requested concurrently, but only one result is kept.
+ * Concurrent {@link #provideAsync(String) asynchronous} requests for the
+ * same class share a single request to the wrapped provider.</p>
+ *
+ * <p>Individual classes can be {@link #invalidate(String) invalidated}, for
+ * example when a class changes, evicting the class and all the cached
+ * classes that depend on it (its subclasses and implementors) while
+ * keeping the rest of the cache intact. Classes are provided as views
+ * local to the cache, which cache their parents themselves, so evicting a
+ * class also drops the parents cached for it - even where the wrapped
+ * provider shares its class instances.</p>
+ *
  * @author Minecrell
  * @since 0.3.0
  */
 public class CachingInheritanceProvider implements InheritanceProvider {
 
     private final InheritanceProvider provider;
-    private final Map<String, Optional<ClassInfo>> cache = new HashMap<>();
+    private final ConcurrentMap<String, Optional<ClassInfo>> cache = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Optional<ClassInfo>>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented by each invalidation, so results requested before it are
+     * not cached after it.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * The cached classes that directly depend on each class name, being
+     * those that extend or implement it.
+     */
+    private final ConcurrentMap<String, Set<String>> dependents = new ConcurrentHashMap<>();
 
     public CachingInheritanceProvider(final InheritanceProvider provider) {
         this.provider = provider;
@@ -53,12 +87,140 @@ public class CachingInheritanceProvider implements InheritanceProvider {
 
     @Override
     public Optional<ClassInfo> provide(final String klass) {
-        return this.cache.computeIfAbsent(klass, this.provider::provide);
+        final Optional<ClassInfo> cached = this.cache.get(klass);
+        if (cached != null) return cached;
+
+        final long generation = this.generation.get();
+        return this.cache(klass, this.provider.provide(klass), generation);
     }
 
     @Override
     public Optional<ClassInfo> provide(final String klass, final Object context) {
-        return this.cache.computeIfAbsent(klass, k -> this.provider.provide(k, context));
+        final Optional<ClassInfo> cached = this.cache.get(klass);
+        if (cached != null) return cached;
+
+        final long generation = this.generation.get();
+        return this.cache(klass, this.provider.provide(klass, context), generation);
+    }
+
+    @Override
+    public CompletableFuture<Optional<ClassInfo>> provideAsync(final String klass) {
+        final Optional<ClassInfo> cached = this.cache.get(klass);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+
+        final CompletableFuture<Optional<ClassInfo>> future = new CompletableFuture<>();
+        final CompletableFuture<Optional<ClassInfo>> existing = this.pending.putIfAbsent(klass, future);
+        if (existing != null) return existing;
+
+        final long generation = this.generation.get();
+        this.provider.provideAsync(klass).whenComplete((info, ex) -> {
+            // Cache the result before the request is no longer pending, so
+            // another request can't miss both
+            if (ex == null) {
+                future.complete(this.cache(klass, info, generation));
+            }
+            this.pending.remove(klass, future);
+            if (ex != null) {
+                future.completeExceptionally(ex);
+            }
+        });
+        return future;
+    }
+
+    private Optional<ClassInfo> cache(final String klass, final Optional<ClassInfo> provided, final long generation) {
+        final Optional<ClassInfo> info = provided.map(LazyInheritanceClassInfo::scoped);
+        // The class may have been invalidated while it was being provided
+        if (this.generation.get() != generation) return info;
+
+        // The provider is called outside of the map, so it may itself make
+        // further (recursive) requests to this cache
+        final Optional<ClassInfo> existing = this.cache.putIfAbsent(klass, info);
+        if (existing != null) return existing;
+
+        // An invalidation may have raced with caching the class, which has
+        // been evicted already if the invalidation came after it
+        if (this.generation.get() != generation) {
+            this.cache.remove(klass, info);
+            return info;
+        }
+
+        info.ifPresent(classInfo -> {
+            this.addDependent(classInfo.getSuperName(), klass);
+            for (final String iface : classInfo.getInterfaces()) {
+                this.addDependent(iface, klass);
+            }
+        });
+        return info;
+    }
+
+    private void addDependent(final String klass, final String dependent) {
+        if (klass.isEmpty()) return;
+        this.dependents.computeIfAbsent(klass, k -> ConcurrentHashMap.newKeySet()).add(dependent);
+    }
+
+    /**
+     * Evicts the given class from the cache, along with every cached class
+     * that depends on it - all its cached subclasses and implementors, whose
+     * cached parents would include it.
+     *
+     * <p>The cached result is evicted even if the class couldn't be provided,
+     * so a newly added class will be found on the next request. Results of
+     * requests that were in flight during invalidation are returned to
+     * their callers, but aren't cached.</p>
+     *
+     * @param klass The class name
+     * @return The names of the classes evicted from the cache
+     * @since 0.5.0
+     */
+    public Set<String> invalidate(final String klass) {
+        this.generation.incrementAndGet();
+
+        final Set<String> evicted = new HashSet<>();
+        final Deque<String> queue = new ArrayDeque<>();
+        queue.add(klass);
+
+        while (!queue.isEmpty()) {
+            final String current = queue.poll();
+            if (!evicted.add(current)) continue;
+
+            this.pending.remove(current);
+            final Optional<ClassInfo> info = this.cache.remove(current);
+
+            // The class may no longer extend the same classes, so it will
+            // be recorded against its new parents when it is next cached
+            if (info != null && info.isPresent()) {
+                this.removeDependent(info.get().getSuperName(), current);
+                for (final String iface : info.get().getInterfaces()) {
+                    this.removeDependent(iface, current);
+                }
+            }
+
+            final Set<String> dependents = this.dependents.get(current);
+            if (dependents != null) {
+                queue.addAll(dependents);
+            }
+        }
+
+        return Collections.unmodifiableSet(evicted);
+    }
+
+    private void removeDependent(final String klass, final String dependent) {
+        final Set<String> dependents = this.dependents.get(klass);
+        if (dependents != null) {
+            dependents.remove(dependent);
+        }
+    }
+
+    /**
+     * Evicts all classes from the cache.
+     *
+     * @since 0.5.0
+     */
+    public void invalidateAll() {
+        this.generation.incrementAndGet();
+        this.pending.clear();
+        this.cache.clear();
+        this.dependents.clear();
     }
 
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Computes the common super class of two classes from an
+ * {@link InheritanceProvider}, with the semantics of ASM's
+ * {@code ClassWriter#getCommonSuperClass(String, String)}.
+ *
+ * <p>Results are memoized per pair of classes, so a single resolver can be
+ * shared between all of the class writers of a job.</p>
+ *
+ * @since 0.5.0
+ */
+public class CommonSuperClassResolver {
+
+    private static final String OBJECT = "java/lang/Object";
+
+    private final InheritanceProvider provider;
+    private final ConcurrentMap<Key, String> cache = new ConcurrentHashMap<>();
+
+    public CommonSuperClassResolver(final InheritanceProvider provider) {
+        this.provider = provider;
+    }
+
+    /**
+     * Gets the provider used by this resolver.
+     *
+     * @return The inheritance provider
+     */
+    public InheritanceProvider getProvider() {
+        return this.provider;
+    }
+
+    /**
+     * Gets the common super class of the given classes. Where either class
+     * is an interface, and isn't assignable from the other,
+     * {@code java/lang/Object} is returned.
+     *
+     * @param type1 The name of the first class
+     * @param type2 The name of the second class
+     * @return The name of the common super class
+     * @throws TypeNotPresentException If either class, or a super class,
+     *         couldn't be provided
+     */
+    public String getCommonSuperClass(final String type1, final String type2) {
+        if (type1.equals(type2)) return type1;
+
+        final Key key = type1.compareTo(type2) < 0 ? new Key(type1, type2) : new Key(type2, type1);
+        final String cached = this.cache.get(key);
+        if (cached != null) return cached;
+
+        final String common = this.compute(type1, type2);
+        final String existing = this.cache.putIfAbsent(key, common);
+        return existing != null ? existing : common;
+    }
+
+    private String compute(final String type1, final String type2) {
+        final InheritanceProvider.ClassInfo info1 = this.provide(type1);
+        final InheritanceProvider.ClassInfo info2 = this.provide(type2);
+
+        if (info2.hasParent(type1, this.provider)) return type1;
+        if (info1.hasParent(type2, this.provider)) return type2;
+        if (info1.isInterface() || info2.isInterface()) return OBJECT;
+
+        // Find the first super class of type1 that type2 also extends
+        final Set<String> supers = new HashSet<>();
+        for (InheritanceProvider.ClassInfo current = info2; supers.add(current.getName()); ) {
+            if (current.getSuperName().isEmpty()) break;
+            current = this.provide(current.getSuperName());
+        }
+        final Set<String> visited = new HashSet<>();
+        for (InheritanceProvider.ClassInfo current = info1; visited.add(current.getName()); ) {
+            if (supers.contains(current.getName())) return current.getName();
+            if (current.getSuperName().isEmpty()) break;
+            current = this.provide(current.getSuperName());
+        }
+        return OBJECT;
+    }
+
+    private InheritanceProvider.ClassInfo provide(final String klass) {
+        return this.provider.provide(klass)
+                .orElseThrow(() -> new TypeNotPresentException(klass, null));
+    }
+
+    /**
+     * An unordered pair of class names.
+     */
+    private static final class Key {
+
+        private final String first;
+        private final String second;
+
+        Key(final String first, final String second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            final Key that = (Key) obj;
+            return Objects.equals(this.first, that.first) &&
+                    Objects.equals(this.second, that.second);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.first, this.second);
+        }
+
+    }
+
+}
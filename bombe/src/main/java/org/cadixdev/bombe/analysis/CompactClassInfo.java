@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis;
+
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A compact, immutable implementation of {@link InheritanceProvider.ClassInfo},
+ * intended for holding the class information of very large class paths.
+ *
+ * <p>Rather than hash maps, the declared members are stored in arrays sorted
+ * by the hash of their name, with their {@link InheritanceType}s stored in a
+ * parallel {@code byte[]}. {@link #getFields()}, {@link #getFieldsByName()}
+ * and {@link #getMethods()} return lightweight, unmodifiable views of these
+ * arrays. The raw access flags of the class and its members are kept
+ * where they are known.</p>
+ *
+ * @since 0.5.0
+ */
+public class CompactClassInfo extends InheritanceProvider.ClassInfo.Abstract {
+
+    /**
+     * Creates a compact copy of the given class information.
+     *
+     * @param info The class information
+     * @return The compact class information
+     */
+    public static CompactClassInfo of(final InheritanceProvider.ClassInfo info) {
+        if (info instanceof CompactClassInfo) return (CompactClassInfo) info;
+
+        final Map<FieldSignature, Integer> fields = new LinkedHashMap<>();
+        for (final FieldSignature field : info.getFields().keySet()) {
+            fields.put(field, info.getFieldAccess(field));
+        }
+        final Map<MethodSignature, Integer> methods = new HashMap<>();
+        for (final MethodSignature method : info.getMethods().keySet()) {
+            methods.put(method, info.getMethodAccess(method));
+        }
+        return new CompactClassInfo(info.getName(), info.getAccess(), info.getSuperName(), info.getInterfaces(),
+                fields, methods);
+    }
+
+    private final String name;
+    private final int access;
+    private final boolean isInterface;
+    private final String superName;
+    private final List<String> interfaces;
+    private final CompactMemberTable<FieldSignature> fields;
+    private final CompactMemberTable<MethodSignature> methods;
+
+    private volatile Set<InheritanceProvider.ClassInfo> parents;
+
+    public CompactClassInfo(final String name, final boolean isInterface, final String superName, final List<String> interfaces,
+            final Map<FieldSignature, InheritanceType> fields, final Map<MethodSignature, InheritanceType> methods) {
+        this(name, isInterface ? Modifier.INTERFACE | Modifier.ABSTRACT : 0, superName, interfaces,
+                new CompactMemberTable<>(fields), new CompactMemberTable<>(methods));
+    }
+
+    /**
+     * Creates a new class info, retaining the raw access flags of the
+     * class and its members.
+     *
+     * @param name The name of the class
+     * @param access The access flags of the class
+     * @param superName The name of the super class
+     * @param interfaces The names of the interfaces
+     * @param fields The access flags of the fields
+     * @param methods The access flags of the methods
+     */
+    public CompactClassInfo(final String name, final int access, final String superName, final List<String> interfaces,
+            final Map<FieldSignature, Integer> fields, final Map<MethodSignature, Integer> methods) {
+        this(name, access, superName, interfaces, CompactMemberTable.ofAccess(fields), CompactMemberTable.ofAccess(methods));
+    }
+
+    private CompactClassInfo(final String name, final int access, final String superName, final List<String> interfaces,
+            final CompactMemberTable<FieldSignature> fields, final CompactMemberTable<MethodSignature> methods) {
+        this.name = name;
+        this.access = access;
+        this.isInterface = (access & Modifier.INTERFACE) != 0;
+        this.superName = superName != null ? superName : "";
+        this.interfaces = interfaces.isEmpty() ?
+                Collections.emptyList() :
+                Collections.unmodifiableList(Arrays.asList(interfaces.toArray(new String[0])));
+        this.fields = fields;
+        this.methods = methods;
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public boolean isInterface() {
+        return this.isInterface;
+    }
+
+    @Override
+    public String getSuperName() {
+        return this.superName;
+    }
+
+    @Override
+    public List<String> getInterfaces() {
+        return this.interfaces;
+    }
+
+    @Override
+    public Map<FieldSignature, InheritanceType> getFields() {
+        return this.fields.asMap();
+    }
+
+    @Override
+    public Map<String, InheritanceType> getFieldsByName() {
+        return this.fields.asNameMap();
+    }
+
+    @Override
+    public Map<MethodSignature, InheritanceType> getMethods() {
+        return this.methods.asMap();
+    }
+
+    @Override
+    public InheritanceType getField(final FieldSignature field) {
+        final int index = field.getType().isPresent() ?
+                this.fields.indexOf(field) :
+                this.fields.indexOfName(field.getName());
+        return index >= 0 ? this.fields.getType(index) : InheritanceType.NONE;
+    }
+
+    @Override
+    public InheritanceType getMethod(final MethodSignature method) {
+        final InheritanceType type = this.methods.get(method);
+        return type != null ? type : InheritanceType.NONE;
+    }
+
+    @Override
+    public int getAccess() {
+        return this.access;
+    }
+
+    @Override
+    public int getFieldAccess(final FieldSignature field) {
+        final int index = field.getType().isPresent() ?
+                this.fields.indexOf(field) :
+                this.fields.indexOfName(field.getName());
+        return index >= 0 ? this.fields.getAccess(index) : -1;
+    }
+
+    @Override
+    public int getMethodAccess(final MethodSignature method) {
+        final int index = this.methods.indexOf(method);
+        return index >= 0 ? this.methods.getAccess(index) : -1;
+    }
+
+    @Override
+    public Set<InheritanceProvider.ClassInfo> provideParents(final InheritanceProvider provider) {
+        Set<InheritanceProvider.ClassInfo> parents = this.parents;
+        if (parents == null) {
+            final Set<InheritanceProvider.ClassInfo> result = new HashSet<>();
+            super.provideParents(provider, result);
+            this.parents = parents = Collections.unmodifiableSet(result);
+        }
+        return parents;
+    }
+
+    @Override
+    public void provideParents(final InheritanceProvider provider, final Collection<InheritanceProvider.ClassInfo> parents) {
+        parents.addAll(this.provideParents(provider));
+    }
+
+    Set<InheritanceProvider.ClassInfo> getCachedParents() {
+        return this.parents;
+    }
+
+    @Override
+    public InheritanceProvider.ClassInfo lazy() {
+        return this; // All values are computed already
+    }
+
+}
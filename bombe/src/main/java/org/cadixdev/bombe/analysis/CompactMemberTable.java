@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis;
+
+import org.cadixdev.bombe.type.signature.MemberSignature;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A compact, immutable table of the members declared by a class, and
+ * their {@link InheritanceType}s.
+ *
+ * <p>The members are stored in an array, sorted by the hash code of their
+ * name, with a parallel array of the hash codes to binary search and a
+ * parallel {@code byte[]} of inheritance types. Where known, the raw
+ * access flags of the members are kept in a parallel {@code char[]}, as
+ * they are unsigned 16-bit values. Lookups by signature and by name are
+ * both supported.</p>
+ *
+ * <p>Members with the same name hash keep the order they were given in,
+ * so where several members share a name, the one given last is used for
+ * lookups by name - as when putting members into a map by name in
+ * declaration order.</p>
+ *
+ * @param <S> The type of member signature
+ */
+final class CompactMemberTable<S extends MemberSignature> {
+
+    private static final InheritanceType[] TYPES = InheritanceType.values();
+
+    private final MemberSignature[] signatures;
+    private final int[] hashes;
+    private final byte[] types;
+    private final char[] access;
+
+    /**
+     * The indices of the members used for lookups by name, one for each
+     * distinct name - computed once needed.
+     */
+    private volatile int[] names;
+
+    /**
+     * Creates a table of members with the given access flags.
+     *
+     * @param access The raw access flags of the members
+     * @param <S> The type of member signature
+     * @return The member table
+     */
+    static <S extends MemberSignature> CompactMemberTable<S> ofAccess(final Map<S, Integer> access) {
+        return new CompactMemberTable<>(access, true);
+    }
+
+    CompactMemberTable(final Map<S, InheritanceType> members) {
+        this(members, false);
+    }
+
+    private CompactMemberTable(final Map<S, ?> members, final boolean hasAccess) {
+        @SuppressWarnings("unchecked")
+        final Map.Entry<S, ?>[] entries = members.entrySet().toArray(new Map.Entry[0]);
+        // The sort is stable, keeping the given order of members with the same name
+        Arrays.sort(entries, Comparator.comparingInt(entry -> entry.getKey().getName().hashCode()));
+
+        this.signatures = new MemberSignature[entries.length];
+        this.hashes = new int[entries.length];
+        this.types = new byte[entries.length];
+        this.access = hasAccess ? new char[entries.length] : null;
+        for (int i = 0; i < entries.length; i++) {
+            this.signatures[i] = entries[i].getKey();
+            this.hashes[i] = entries[i].getKey().getName().hashCode();
+            if (hasAccess) {
+                final int flags = (Integer) entries[i].getValue();
+                this.access[i] = (char) flags;
+                this.types[i] = (byte) InheritanceType.fromModifiers(flags).ordinal();
+            }
+            else {
+                this.types[i] = (byte) ((InheritanceType) entries[i].getValue()).ordinal();
+            }
+        }
+    }
+
+    int size() {
+        return this.signatures.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    S getSignature(final int index) {
+        return (S) this.signatures[index];
+    }
+
+    InheritanceType getType(final int index) {
+        return TYPES[this.types[index]];
+    }
+
+    int getAccess(final int index) {
+        return this.access != null ? this.access[index] : this.getType(index).toModifiers();
+    }
+
+    /**
+     * Finds the first index of the members with the given name hash.
+     *
+     * @param hash The hash code of the name
+     * @return The first index, or a negative value if there are none
+     */
+    private int first(final int hash) {
+        int index = Arrays.binarySearch(this.hashes, hash);
+        if (index < 0) return -1;
+        while (index > 0 && this.hashes[index - 1] == hash) index--;
+        return index;
+    }
+
+    /**
+     * Gets the index of the member with the given signature.
+     *
+     * @param signature The signature
+     * @return The index, or {@code -1} if not declared
+     */
+    int indexOf(final Object signature) {
+        if (!(signature instanceof MemberSignature)) return -1;
+
+        final int hash = ((MemberSignature) signature).getName().hashCode();
+        for (int i = this.first(hash); i >= 0 && i < this.hashes.length && this.hashes[i] == hash; i++) {
+            if (this.signatures[i].equals(signature)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the index of the last member with the given name.
+     *
+     * @param name The name
+     * @return The index, or {@code -1} if not declared
+     */
+    int indexOfName(final Object name) {
+        if (!(name instanceof String)) return -1;
+
+        final int hash = name.hashCode();
+        int index = -1;
+        for (int i = this.first(hash); i >= 0 && i < this.hashes.length && this.hashes[i] == hash; i++) {
+            if (this.signatures[i].getName().equals(name)) index = i;
+        }
+        return index;
+    }
+
+    /**
+     * Gets the indices of the members used for lookups by name, being the
+     * last member with each name.
+     *
+     * @return The indices
+     */
+    private int[] getNames() {
+        int[] names = this.names;
+        if (names != null) return names;
+
+        final int[] indices = new int[this.signatures.length];
+        int count = 0;
+        for (int i = 0; i < this.signatures.length; i++) {
+            // Members sharing a name are within the same run of hashes
+            boolean last = true;
+            for (int j = i + 1; j < this.hashes.length && this.hashes[j] == this.hashes[i]; j++) {
+                if (this.signatures[j].getName().equals(this.signatures[i].getName())) {
+                    last = false;
+                    break;
+                }
+            }
+            if (last) indices[count++] = i;
+        }
+        this.names = names = count == indices.length ? indices : Arrays.copyOf(indices, count);
+        return names;
+    }
+
+    InheritanceType get(final Object signature) {
+        final int index = this.indexOf(signature);
+        return index >= 0 ? this.getType(index) : null;
+    }
+
+    /**
+     * Creates an unmodifiable {@link Map} view of this table, keyed by
+     * signature.
+     *
+     * @return The map view
+     */
+    Map<S, InheritanceType> asMap() {
+        return new AbstractMap<S, InheritanceType>() {
+            @Override
+            public InheritanceType get(final Object key) {
+                return CompactMemberTable.this.get(key);
+            }
+
+            @Override
+            public boolean containsKey(final Object key) {
+                return CompactMemberTable.this.indexOf(key) >= 0;
+            }
+
+            @Override
+            public int size() {
+                return CompactMemberTable.this.size();
+            }
+
+            @Override
+            public Set<Entry<S, InheritanceType>> entrySet() {
+                return new EntrySet<>(null, CompactMemberTable.this::getSignature);
+            }
+        };
+    }
+
+    /**
+     * Creates an unmodifiable {@link Map} view of this table, keyed by
+     * name. Where several members share a name, the last is used.
+     *
+     * @return The map view
+     */
+    Map<String, InheritanceType> asNameMap() {
+        return new AbstractMap<String, InheritanceType>() {
+            @Override
+            public InheritanceType get(final Object key) {
+                final int index = CompactMemberTable.this.indexOfName(key);
+                return index >= 0 ? CompactMemberTable.this.getType(index) : null;
+            }
+
+            @Override
+            public boolean containsKey(final Object key) {
+                return CompactMemberTable.this.indexOfName(key) >= 0;
+            }
+
+            @Override
+            public int size() {
+                return CompactMemberTable.this.getNames().length;
+            }
+
+            @Override
+            public Set<Entry<String, InheritanceType>> entrySet() {
+                final CompactMemberTable<S> table = CompactMemberTable.this;
+                return new EntrySet<>(table.getNames(), i -> table.signatures[i].getName());
+            }
+        };
+    }
+
+    private interface IndexFunction<K> {
+        K apply(int index);
+    }
+
+    private final class EntrySet<K> extends AbstractSet<Map.Entry<K, InheritanceType>> {
+
+        /**
+         * The indices of the members in the set, or {@code null} for all.
+         */
+        private final int[] indices;
+        private final IndexFunction<K> key;
+
+        EntrySet(final int[] indices, final IndexFunction<K> key) {
+            this.indices = indices;
+            this.key = key;
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, InheritanceType>> iterator() {
+            return new Iterator<Map.Entry<K, InheritanceType>>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return this.next < EntrySet.this.size();
+                }
+
+                @Override
+                public Map.Entry<K, InheritanceType> next() {
+                    if (!this.hasNext()) throw new NoSuchElementException();
+                    final int position = this.next++;
+                    final int index = EntrySet.this.indices != null ? EntrySet.this.indices[position] : position;
+                    return new AbstractMap.SimpleImmutableEntry<>(EntrySet.this.key.apply(index), CompactMemberTable.this.getType(index));
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return this.indices != null ? this.indices.length : CompactMemberTable.this.size();
+        }
+
+    }
+
+}
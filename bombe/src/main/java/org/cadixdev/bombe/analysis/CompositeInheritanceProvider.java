@@ -33,6 +33,7 @@ package org.cadixdev.bombe.analysis;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A composite {@link InheritanceProvider} allows for class information to be
@@ -83,4 +84,18 @@ public class CompositeInheritanceProvider implements InheritanceProvider {
         return Optional.empty();
     }
 
+    @Override
+    public CompletableFuture<Optional<ClassInfo>> provideAsync(final String klass) {
+        return this.provideAsync(klass, 0);
+    }
+
+    private CompletableFuture<Optional<ClassInfo>> provideAsync(final String klass, final int index) {
+        if (index >= this.providers.size()) return CompletableFuture.completedFuture(Optional.empty());
+
+        return this.providers.get(index).provideAsync(klass).thenCompose(info -> {
+            if (info.isPresent()) return CompletableFuture.completedFuture(info);
+            return this.provideAsync(klass, index + 1);
+        });
+    }
+
 }
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis;
+
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * An implementation of {@link InheritanceProvider.ClassInfo} that holds the
+ * header of a class - its name, access flags, super class and interfaces -
+ * up front,
+ * loading its members only once they are first needed.
+ *
+ * <p>Hierarchy-only workloads, such as subtype checks, never need the
+ * members of the classes they touch, and so skip most of the parsing and
+ * memory needed for them. Once loaded, the members loader is released.</p>
+ *
+ * @since 0.5.0
+ */
+public class DeferredClassInfo extends InheritanceProvider.ClassInfo.Abstract {
+
+    private final String name;
+    private final int access;
+    private final String superName;
+    private final List<String> interfaces;
+
+    private volatile Supplier<? extends InheritanceProvider.ClassInfo> loader;
+    private volatile InheritanceProvider.ClassInfo members;
+    private volatile Set<InheritanceProvider.ClassInfo> parents;
+
+    /**
+     * Creates a new class info, with members loaded on demand.
+     *
+     * @param name The name of the class
+     * @param isInterface Whether the class is an interface
+     * @param superName The name of the super class
+     * @param interfaces The names of the interfaces
+     * @param loader The loader of the class's members, supplying the
+     *               full class information, or {@code null} if it can no
+     *               longer be found - in which case accessing the members
+     *               throws an {@link IllegalStateException}, and they are
+     *               loaded again on the next access
+     */
+    public DeferredClassInfo(final String name, final boolean isInterface, final String superName, final List<String> interfaces,
+            final Supplier<? extends InheritanceProvider.ClassInfo> loader) {
+        this(name, isInterface ? Modifier.INTERFACE | Modifier.ABSTRACT : 0, superName, interfaces, loader);
+    }
+
+    /**
+     * Creates a new class info, with members loaded on demand.
+     *
+     * @param name The name of the class
+     * @param access The access flags of the class
+     * @param superName The name of the super class
+     * @param interfaces The names of the interfaces
+     * @param loader The loader of the class's members, supplying the
+     *               full class information, or {@code null} if it can no
+     *               longer be found - in which case accessing the members
+     *               throws an {@link IllegalStateException}, and they are
+     *               loaded again on the next access
+     */
+    public DeferredClassInfo(final String name, final int access, final String superName, final List<String> interfaces,
+            final Supplier<? extends InheritanceProvider.ClassInfo> loader) {
+        this.name = name;
+        this.access = access;
+        this.superName = superName != null ? superName : "";
+        this.interfaces = interfaces.isEmpty() ?
+                Collections.emptyList() :
+                Collections.unmodifiableList(Arrays.asList(interfaces.toArray(new String[0])));
+        this.loader = loader;
+    }
+
+    /**
+     * Gets whether the members of this class have been loaded.
+     *
+     * @return {@code true} if the members have been loaded
+     */
+    public boolean isLoaded() {
+        return this.members != null;
+    }
+
+    private InheritanceProvider.ClassInfo members() {
+        InheritanceProvider.ClassInfo members = this.members;
+        if (members != null) return members;
+
+        final Supplier<? extends InheritanceProvider.ClassInfo> loader = this.loader;
+        // The loader is only released after the members are published
+        if (loader == null) return this.members;
+
+        members = loader.get();
+        if (members == null) {
+            // The loader is kept, so a later call can try again
+            throw new IllegalStateException("Failed to load the members of " + this.name);
+        }
+        this.members = members;
+        this.loader = null;
+        return members;
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public boolean isInterface() {
+        return (this.access & Modifier.INTERFACE) != 0;
+    }
+
+    @Override
+    public int getAccess() {
+        return this.access;
+    }
+
+    @Override
+    public String getSuperName() {
+        return this.superName;
+    }
+
+    @Override
+    public List<String> getInterfaces() {
+        return this.interfaces;
+    }
+
+    @Override
+    public Map<FieldSignature, InheritanceType> getFields() {
+        return this.members().getFields();
+    }
+
+    @Override
+    public Map<String, InheritanceType> getFieldsByName() {
+        return this.members().getFieldsByName();
+    }
+
+    @Override
+    public Map<MethodSignature, InheritanceType> getMethods() {
+        return this.members().getMethods();
+    }
+
+    @Override
+    public InheritanceType getField(final FieldSignature field) {
+        return this.members().getField(field);
+    }
+
+    @Override
+    public InheritanceType getMethod(final MethodSignature method) {
+        return this.members().getMethod(method);
+    }
+
+    @Override
+    public int getFieldAccess(final FieldSignature field) {
+        return this.members().getFieldAccess(field);
+    }
+
+    @Override
+    public int getMethodAccess(final MethodSignature method) {
+        return this.members().getMethodAccess(method);
+    }
+
+    @Override
+    public Set<InheritanceProvider.ClassInfo> provideParents(final InheritanceProvider provider) {
+        Set<InheritanceProvider.ClassInfo> parents = this.parents;
+        if (parents == null) {
+            final Set<InheritanceProvider.ClassInfo> result = new HashSet<>();
+            super.provideParents(provider, result);
+            this.parents = parents = Collections.unmodifiableSet(result);
+        }
+        return parents;
+    }
+
+    @Override
+    public void provideParents(final InheritanceProvider provider, final Collection<InheritanceProvider.ClassInfo> parents) {
+        parents.addAll(this.provideParents(provider));
+    }
+
+    Set<InheritanceProvider.ClassInfo> getCachedParents() {
+        return this.parents;
+    }
+
+    @Override
+    public InheritanceProvider.ClassInfo lazy() {
+        return this; // Members are cached once loaded
+    }
+
+}
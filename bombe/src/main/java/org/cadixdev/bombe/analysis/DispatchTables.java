@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis;
+
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.lang.reflect.Modifier;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Precomputed virtual and interface dispatch tables, mapping each method
+ * signature a class responds to onto the class whose implementation would
+ * be selected, as with JVMS 5.4.6.
+ *
+ * <p>Each table is flattened as it is built, holding every entry of its
+ * class, so selection is a single hash lookup however deep the hierarchy.
+ * Tables are built once per class, from the table of the super class and
+ * the entries the class changes, and a class that neither declares nor
+ * inherits new methods shares its super class's table instance.</p>
+ *
+ * <p>A package-private method is only overridden by methods declared in
+ * the same package. Where a class declares a method that doesn't override
+ * an inherited package-private method, both implementations are kept, and
+ * {@link #select(String, String, MethodSignature)} picks between them by
+ * the class the call was resolved against.</p>
+ *
+ * @since 0.5.0
+ */
+public class DispatchTables {
+
+    private final InheritanceProvider provider;
+    private final ConcurrentMap<String, Table> tables = new ConcurrentHashMap<>();
+
+    public DispatchTables(final InheritanceProvider provider) {
+        this.provider = provider;
+    }
+
+    /**
+     * Selects the implementation of the given method for a receiver of the
+     * given class, where the call was resolved against the receiver's class.
+     *
+     * @param receiver The class of the receiver
+     * @param method The method signature
+     * @return The class declaring the selected implementation, or
+     *         {@link Optional#empty()} if none is available
+     */
+    public Optional<InheritanceProvider.ClassInfo> select(final String receiver, final MethodSignature method) {
+        final Table table = this.lookup(receiver);
+        return table != null ? Optional.ofNullable(table.get(method)) : Optional.empty();
+    }
+
+    /**
+     * Selects the implementation of the given method for a receiver of the
+     * given class, where the call was resolved to the method declared by
+     * the given class.
+     *
+     * @param receiver The class of the receiver
+     * @param resolved The class declaring the resolved method
+     * @param method The method signature
+     * @return The class declaring the selected implementation, or
+     *         {@link Optional#empty()} if none is available
+     */
+    public Optional<InheritanceProvider.ClassInfo> select(final String receiver, final String resolved, final MethodSignature method) {
+        final Table table = this.lookup(receiver);
+        return table != null ? Optional.ofNullable(table.select(resolved, method)) : Optional.empty();
+    }
+
+    /**
+     * Gets the dispatch table of the given class, mapping each
+     * non-private instance method signature to the class whose
+     * implementation would be selected for calls resolved against the
+     * class.
+     *
+     * <p>The table is unmodifiable.</p>
+     *
+     * @param klass The name of the class
+     * @return The dispatch table, or {@link Optional#empty()} if the class
+     *         couldn't be provided
+     */
+    public Optional<Map<MethodSignature, InheritanceProvider.ClassInfo>> getTable(final String klass) {
+        return Optional.ofNullable(this.lookup(klass));
+    }
+
+    private Table lookup(final String klass) {
+        // Only walk the hierarchy if the table hasn't been built yet
+        final Table cached = this.tables.get(klass);
+        return cached != null ? cached : this.getTable(klass, new Walk());
+    }
+
+    private Table getTable(final String klass, final Walk walk) {
+        final Table cached = this.tables.get(klass);
+        if (cached != null) return cached;
+
+        // Guard against cyclic hierarchies
+        if (klass.isEmpty()) return null;
+        if (!walk.visiting.add(klass)) {
+            walk.cyclic = true;
+            return null;
+        }
+
+        final InheritanceProvider.ClassInfo info = this.provider.provide(klass).orElse(null);
+        if (info == null) {
+            walk.visiting.remove(klass);
+            return null;
+        }
+
+        final Table parent = info.isInterface() ?
+                null :
+                this.getTable(info.getSuperName(), walk);
+        final Builder builder = new Builder(parent);
+
+        // Methods declared by the class take priority over anything inherited
+        for (final Map.Entry<MethodSignature, InheritanceType> method : info.getMethods().entrySet()) {
+            if (method.getValue() == InheritanceType.NONE || method.getKey().getName().startsWith("<")) continue;
+            // Static methods are never selected
+            if (Modifier.isStatic(info.getMethodAccess(method.getKey()))) continue;
+            builder.declare(method.getKey(), info);
+        }
+
+        for (final String iface : info.getInterfaces()) {
+            final Table table = this.getTable(iface, walk);
+            if (table == null) continue;
+
+            for (final Map.Entry<MethodSignature, Implementation> method : table.entries.entrySet()) {
+                builder.inherit(method.getKey(), method.getValue());
+            }
+        }
+
+        final Table table = builder.build();
+        walk.visiting.remove(klass);
+        // A table built while recovering from a cycle is missing the parent
+        // that was cut, so would differ depending on where the walk started
+        if (walk.cyclic) return table;
+
+        final Table existing = this.tables.putIfAbsent(klass, table);
+        return existing != null ? existing : table;
+    }
+
+    /**
+     * The state of a walk over the hierarchy of a class.
+     */
+    private static final class Walk {
+
+        private final Set<String> visiting = new HashSet<>();
+        private boolean cyclic;
+
+    }
+
+    /**
+     * An implementation in a dispatch table, linked to the next
+     * implementation of the same signature that it doesn't override.
+     */
+    private static final class Implementation {
+
+        private final InheritanceProvider.ClassInfo info;
+
+        /**
+         * The names of the classes declaring the methods this implementation
+         * overrides, including its own.
+         */
+        private final Set<String> overrides;
+
+        private final Implementation next;
+
+        Implementation(final InheritanceProvider.ClassInfo info, final Set<String> overrides, final Implementation next) {
+            this.info = info;
+            this.overrides = overrides;
+            this.next = next;
+        }
+
+    }
+
+    /**
+     * The implementations of every method a class responds to.
+     */
+    private static final class Table extends AbstractMap<MethodSignature, InheritanceProvider.ClassInfo> {
+
+        private final Map<MethodSignature, Implementation> entries;
+        private volatile Set<Map.Entry<MethodSignature, InheritanceProvider.ClassInfo>> entrySet;
+
+        Table(final Map<MethodSignature, Implementation> entries) {
+            this.entries = entries;
+        }
+
+        InheritanceProvider.ClassInfo select(final String resolved, final MethodSignature method) {
+            final Implementation first = this.entries.get(method);
+            for (Implementation entry = first; entry != null; entry = entry.next) {
+                if (entry.overrides.contains(resolved)) return entry.info;
+            }
+            // Methods resolved elsewhere, such as in a superinterface, are
+            // overridden by the first implementation
+            return first != null ? first.info : null;
+        }
+
+        @Override
+        public InheritanceProvider.ClassInfo get(final Object key) {
+            final Implementation entry = this.entries.get(key);
+            return entry != null ? entry.info : null;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return this.entries.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return this.entries.size();
+        }
+
+        @Override
+        public Set<Map.Entry<MethodSignature, InheritanceProvider.ClassInfo>> entrySet() {
+            Set<Map.Entry<MethodSignature, InheritanceProvider.ClassInfo>> entrySet = this.entrySet;
+            if (entrySet == null) {
+                final Map<MethodSignature, InheritanceProvider.ClassInfo> infos = new HashMap<>();
+                for (final Map.Entry<MethodSignature, Implementation> entry : this.entries.entrySet()) {
+                    infos.put(entry.getKey(), entry.getValue().info);
+                }
+                this.entrySet = entrySet = Collections.unmodifiableMap(infos).entrySet();
+            }
+            return entrySet;
+        }
+
+    }
+
+    /**
+     * Builds a dispatch table on top of a parent table, from the entries
+     * the class changes.
+     */
+    private final class Builder {
+
+        private final Table parent;
+        private Map<MethodSignature, Implementation> entries;
+
+        Builder(final Table parent) {
+            this.parent = parent;
+        }
+
+        void declare(final MethodSignature method, final InheritanceProvider.ClassInfo info) {
+            final Set<String> overrides = new HashSet<>();
+            overrides.add(info.getName());
+
+            // Keep the implementations the declared method can't override,
+            // being package-private methods of other packages
+            Implementation kept = null;
+            for (Implementation entry = this.get(method); entry != null; entry = entry.next) {
+                if (entry.info.getMethod(method).canInherit(entry.info, info)) {
+                    overrides.addAll(entry.overrides);
+                }
+                else {
+                    kept = new Implementation(entry.info, entry.overrides, kept);
+                }
+            }
+            this.put(method, new Implementation(info, overrides, reverse(kept)));
+        }
+
+        void inherit(final MethodSignature method, final Implementation candidate) {
+            final Implementation existing = this.get(method);
+            if (existing == null) {
+                this.put(method, candidate);
+                return;
+            }
+            if (existing.info == candidate.info) return;
+
+            // Methods from the class hierarchy always win over superinterface
+            // methods, otherwise the maximally-specific method is selected,
+            // preferring default methods and then choosing by name where
+            // there are several.
+            if (!existing.info.isInterface()) return;
+            if (existing.info.hasParent(candidate.info.getName(), DispatchTables.this.provider)) return;
+            if (!candidate.info.hasParent(existing.info.getName(), DispatchTables.this.provider)) {
+                final boolean existingAbstract = Modifier.isAbstract(existing.info.getMethodAccess(method));
+                final boolean candidateAbstract = Modifier.isAbstract(candidate.info.getMethodAccess(method));
+                if (!existingAbstract && candidateAbstract) return;
+                if (existingAbstract == candidateAbstract && existing.info.getName().compareTo(candidate.info.getName()) <= 0) return;
+            }
+
+            // Calls resolved against the replaced method select the candidate
+            final Set<String> overrides = new HashSet<>(candidate.overrides);
+            overrides.addAll(existing.overrides);
+            this.put(method, new Implementation(candidate.info, overrides, existing.next));
+        }
+
+        private Implementation get(final MethodSignature method) {
+            if (this.entries != null) {
+                final Implementation entry = this.entries.get(method);
+                if (entry != null) return entry;
+            }
+            return this.parent != null ? this.parent.entries.get(method) : null;
+        }
+
+        private void put(final MethodSignature method, final Implementation entry) {
+            if (this.entries == null) {
+                this.entries = new HashMap<>();
+            }
+            this.entries.put(method, entry);
+        }
+
+        Table build() {
+            if (this.entries == null) {
+                return this.parent != null ? this.parent : new Table(Collections.emptyMap());
+            }
+            if (this.parent == null) return new Table(this.entries);
+
+            // Flatten the parent's entries into the table, so lookups never
+            // need to walk up the hierarchy
+            final Map<MethodSignature, Implementation> flat = new HashMap<>(this.parent.entries);
+            flat.putAll(this.entries);
+            return new Table(flat);
+        }
+
+    }
+
+    private static Implementation reverse(final Implementation entry) {
+        Implementation reversed = null;
+        for (Implementation current = entry; current != null; current = current.next) {
+            reversed = new Implementation(current.info, current.overrides, reversed);
+        }
+        return reversed;
+    }
+
+}
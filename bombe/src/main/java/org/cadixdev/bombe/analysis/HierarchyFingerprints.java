@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis;
+
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.bombe.type.signature.MemberSignature;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+
+/**
+ * A snapshot of Merkle-style fingerprints of the classes recorded by an
+ * {@link IndexingInheritanceProvider}.
+ *
+ * <p>Each class has a content fingerprint, of its name, super class,
+ * interfaces and members, and a subtree fingerprint rolling up the
+ * content fingerprint with the subtree fingerprints of its direct
+ * children. Classes extending classes that weren't indexed, such as those
+ * of the JDK, are grouped by those parents, and the groups are rolled up
+ * into a single fingerprint of the whole snapshot. Two snapshots can be
+ * {@link #diff(HierarchyFingerprints, HierarchyFingerprints) diffed} by
+ * descending only into groups and subtrees whose fingerprints differ, so
+ * snapshots that are the same are compared at once, and results computed
+ * for an unchanged subtree can be reused.</p>
+ *
+ * @since 0.5.0
+ */
+public final class HierarchyFingerprints {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Computes the content fingerprint of the given class.
+     *
+     * <p>Members are combined in an order-independent way, so the
+     * fingerprint doesn't depend on the order members were declared in.</p>
+     *
+     * @param info The class
+     * @return The content fingerprint
+     */
+    public static long fingerprint(final InheritanceProvider.ClassInfo info) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = hash(hash, info.getName());
+        hash = hash(hash, Integer.toHexString(info.getAccess()));
+        hash = hash(hash, info.getSuperName());
+        for (final String iface : info.getInterfaces()) {
+            hash = hash(hash, iface);
+        }
+
+        long members = 0;
+        for (final FieldSignature field : info.getFields().keySet()) {
+            members += member(field, info.getFieldAccess(field));
+        }
+        for (final MethodSignature method : info.getMethods().keySet()) {
+            members += member(method, info.getMethodAccess(method));
+        }
+        return mix(hash ^ mix(members));
+    }
+
+    private static long member(final MemberSignature signature, final int access) {
+        return mix(hash(hash(FNV_OFFSET_BASIS, signature.toJvmsIdentifier()), Integer.toHexString(access)));
+    }
+
+    private static long hash(long hash, final String value) {
+        for (final byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        // Separate values, so that ("ab", "c") and ("a", "bc") differ
+        return (hash ^ 0xFF) * FNV_PRIME;
+    }
+
+    /**
+     * The finaliser of SplitMix64, so similar values are well distributed
+     * before being combined.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Computes the fingerprints of all the classes indexed by the given
+     * provider.
+     *
+     * @param provider The indexing provider
+     * @return The fingerprints
+     */
+    public static HierarchyFingerprints of(final IndexingInheritanceProvider provider) {
+        final Map<String, Long> content = new HashMap<>();
+        final Map<String, Set<String>> children = new HashMap<>();
+        final Map<String, InheritanceProvider.ClassInfo> infos = new HashMap<>();
+        for (final String klass : provider.getIndexedClasses()) {
+            provider.getIndexed(klass).ifPresent(info -> {
+                content.put(klass, fingerprint(info));
+                infos.put(klass, info);
+            });
+        }
+        for (final String klass : content.keySet()) {
+            final Set<String> direct = new HashSet<>(provider.getDirectChildren(klass));
+            direct.retainAll(content.keySet());
+            if (!direct.isEmpty()) children.put(klass, direct);
+        }
+
+        // Group the classes extending classes that weren't indexed by those
+        // parents, with classes extending nothing under the empty name
+        final Map<String, Set<String>> roots = new HashMap<>();
+        for (final InheritanceProvider.ClassInfo info : infos.values()) {
+            boolean root = true;
+            if (!info.getSuperName().isEmpty()) {
+                root = addRoot(roots, content, info.getSuperName(), info.getName());
+            }
+            for (final String iface : info.getInterfaces()) {
+                root &= addRoot(roots, content, iface, info.getName());
+            }
+            if (root && info.getSuperName().isEmpty() && info.getInterfaces().isEmpty()) {
+                roots.computeIfAbsent("", k -> new HashSet<>()).add(info.getName());
+            }
+        }
+
+        // Classes only reachable through a cyclic hierarchy extend nothing
+        // outside of it, so are grouped with those extending nothing
+        final Set<String> reached = new HashSet<>();
+        final Deque<String> queue = new ArrayDeque<>();
+        roots.values().forEach(queue::addAll);
+        while (!queue.isEmpty()) {
+            final String klass = queue.poll();
+            if (reached.add(klass)) queue.addAll(children.getOrDefault(klass, Collections.emptySet()));
+        }
+        for (final String klass : content.keySet()) {
+            if (!reached.contains(klass)) roots.computeIfAbsent("", k -> new HashSet<>()).add(klass);
+        }
+        return new HierarchyFingerprints(content, children, roots);
+    }
+
+    private static boolean addRoot(final Map<String, Set<String>> roots, final Map<String, Long> content, final String parent,
+            final String klass) {
+        if (content.containsKey(parent)) return false;
+        roots.computeIfAbsent(parent, k -> new HashSet<>()).add(klass);
+        return true;
+    }
+
+    /**
+     * Finds the classes that differ between two snapshots - those whose
+     * content has changed, and those that are only in one snapshot.
+     *
+     * @param from The older fingerprints
+     * @param to The newer fingerprints
+     * @return The names of the changed classes
+     */
+    public static Set<String> diff(final HierarchyFingerprints from, final HierarchyFingerprints to) {
+        final Set<String> changed = new HashSet<>();
+        // The whole snapshot is unchanged
+        if (from.hash == to.hash) return changed;
+
+        final Set<String> visited = new HashSet<>();
+        final Deque<String> queue = new ArrayDeque<>();
+        final Set<String> groups = new HashSet<>(from.rootHashes.keySet());
+        groups.addAll(to.rootHashes.keySet());
+        for (final String group : groups) {
+            // The classes extending the parent are unchanged
+            final Long fromGroup = from.rootHashes.get(group);
+            if (fromGroup != null && fromGroup.equals(to.rootHashes.get(group))) continue;
+
+            queue.addAll(from.roots.getOrDefault(group, Collections.emptySet()));
+            queue.addAll(to.roots.getOrDefault(group, Collections.emptySet()));
+        }
+
+        while (!queue.isEmpty()) {
+            final String klass = queue.poll();
+            if (!visited.add(klass)) continue;
+
+            // The whole subtree is unchanged
+            final Long fromSubtree = from.subtree.get(klass);
+            if (fromSubtree != null && fromSubtree.equals(to.subtree.get(klass))) continue;
+
+            final Long fromContent = from.content.get(klass);
+            if (fromContent == null || !fromContent.equals(to.content.get(klass))) changed.add(klass);
+
+            queue.addAll(from.children.getOrDefault(klass, Collections.emptySet()));
+            queue.addAll(to.children.getOrDefault(klass, Collections.emptySet()));
+        }
+        return changed;
+    }
+
+    private final Map<String, Long> content;
+    private final Map<String, Set<String>> children;
+    private final Map<String, Set<String>> roots;
+    private final Map<String, Long> subtree = new HashMap<>();
+    private final Map<String, Long> rootHashes = new HashMap<>();
+    private final long hash;
+
+    private HierarchyFingerprints(final Map<String, Long> content, final Map<String, Set<String>> children,
+            final Map<String, Set<String>> roots) {
+        this.content = content;
+        this.children = children;
+        this.roots = roots;
+
+        // Subtrees cut short by a cycle aren't cached while computing the
+        // rest, as they would differ depending on where the walk started
+        final Map<String, Long> cyclic = new HashMap<>();
+        for (final String klass : content.keySet()) {
+            final Walk walk = new Walk();
+            final long hash = this.computeSubtree(klass, walk);
+            if (walk.cyclic) cyclic.put(klass, hash);
+        }
+        this.subtree.putAll(cyclic);
+
+        long groups = 0;
+        for (final Map.Entry<String, Set<String>> group : roots.entrySet()) {
+            long members = 0;
+            for (final String klass : group.getValue()) {
+                members += mix(this.subtree.get(klass));
+            }
+            final long groupHash = mix(hash(FNV_OFFSET_BASIS, group.getKey()) ^ mix(members));
+            this.rootHashes.put(group.getKey(), groupHash);
+            groups += mix(groupHash);
+        }
+        this.hash = mix(groups);
+    }
+
+    private long computeSubtree(final String klass, final Walk walk) {
+        final Long cached = this.subtree.get(klass);
+        if (cached != null) return cached;
+
+        // A cyclic hierarchy contributes nothing further
+        if (!walk.visiting.add(klass)) {
+            walk.cyclic = true;
+            return 0;
+        }
+
+        long children = 0;
+        for (final String child : this.children.getOrDefault(klass, Collections.emptySet())) {
+            children += mix(this.computeSubtree(child, walk));
+        }
+        final long hash = mix(this.content.get(klass) ^ mix(children));
+        walk.visiting.remove(klass);
+
+        if (!walk.cyclic) this.subtree.put(klass, hash);
+        return hash;
+    }
+
+    /**
+     * Gets the content fingerprint of the given class.
+     *
+     * @param klass The class name
+     * @return The fingerprint, or {@link OptionalLong#empty()} if the class
+     *         wasn't indexed
+     */
+    public OptionalLong getFingerprint(final String klass) {
+        final Long hash = this.content.get(klass);
+        return hash != null ? OptionalLong.of(hash) : OptionalLong.empty();
+    }
+
+    /**
+     * Gets the subtree fingerprint of the given class, covering the class
+     * and all of its indexed subclasses and implementors.
+     *
+     * @param klass The class name
+     * @return The fingerprint, or {@link OptionalLong#empty()} if the class
+     *         wasn't indexed
+     */
+    public OptionalLong getSubtreeFingerprint(final String klass) {
+        final Long hash = this.subtree.get(klass);
+        return hash != null ? OptionalLong.of(hash) : OptionalLong.empty();
+    }
+
+    /**
+     * The state of a walk over the subclasses of a class.
+     */
+    private static final class Walk {
+
+        private final Set<String> visiting = new HashSet<>();
+        private boolean cyclic;
+
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An implementation of {@link InheritanceProvider} that provides classes
+ * that have been registered with it ahead of time.
+ *
+ * <p>Registration is thread-safe, so the provider may be populated in
+ * parallel.</p>
+ *
+ * @since 0.5.0
+ */
+public class InMemoryInheritanceProvider implements InheritanceProvider {
+
+    private final ConcurrentMap<String, ClassInfo> classes = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the given class, replacing any class previously registered
+     * with the same name.
+     *
+     * @param info The class
+     */
+    public void register(final ClassInfo info) {
+        this.classes.put(info.getName(), info);
+    }
+
+    /**
+     * Gets an unmodifiable view of the registered classes, by name.
+     *
+     * @return The registered classes
+     */
+    public Map<String, ClassInfo> getClasses() {
+        return Collections.unmodifiableMap(this.classes);
+    }
+
+    /**
+     * Creates a frozen snapshot of the classes registered so far, unaffected
+     * by later registrations - such as to share as the base of
+     * {@link LayeredInheritanceProvider}s. The classes of the snapshot cache
+     * their parents once walked.
+     *
+     * @return The snapshot
+     */
+    public InheritanceProvider snapshot() {
+        final Map<String, ClassInfo> classes = new HashMap<>(this.classes.size() * 2);
+        for (final ClassInfo info : this.classes.values()) {
+            classes.put(info.getName(), info.lazy());
+        }
+        return klass -> Optional.ofNullable(classes.get(klass));
+    }
+
+    @Override
+    public Optional<ClassInfo> provide(final String klass) {
+        return Optional.ofNullable(this.classes.get(klass));
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An {@link InheritanceProvider} that wraps another {@link InheritanceProvider}
+ * and records a reverse index of the class hierarchy, allowing the
+ * subclasses and implementors of a class to be looked up.
+ *
+ * <p>The index is built incrementally, as classes are provided - it will
+ * only contain the classes that have been requested through this provider
+ * (or explicitly {@link #index(ClassInfo) indexed}). The index may be
+ * queried and updated concurrently.</p>
+ *
+ * @since 0.5.0
+ */
+public class IndexingInheritanceProvider implements InheritanceProvider {
+
+    private final InheritanceProvider provider;
+    private final ConcurrentMap<String, Set<String>> children = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ClassInfo> indexed = new ConcurrentHashMap<>();
+
+    public IndexingInheritanceProvider(final InheritanceProvider provider) {
+        this.provider = provider;
+    }
+
+    @Override
+    public Optional<ClassInfo> provide(final String klass) {
+        final Optional<ClassInfo> info = this.provider.provide(klass);
+        info.ifPresent(this::index);
+        return info;
+    }
+
+    @Override
+    public Optional<ClassInfo> provide(final String klass, final Object context) {
+        final Optional<ClassInfo> info = this.provider.provide(klass, context);
+        info.ifPresent(this::index);
+        return info;
+    }
+
+    @Override
+    public CompletableFuture<Optional<ClassInfo>> provideAsync(final String klass) {
+        return this.provider.provideAsync(klass).thenApply(info -> {
+            info.ifPresent(this::index);
+            return info;
+        });
+    }
+
+    /**
+     * Records the given class in the index, as a child of its super class
+     * and direct interfaces.
+     *
+     * @param info The class to index
+     */
+    public void index(final ClassInfo info) {
+        if (this.indexed.putIfAbsent(info.getName(), info) != null) return;
+
+        if (!info.getSuperName().isEmpty()) {
+            this.addChild(info.getSuperName(), info.getName());
+        }
+        for (final String iface : info.getInterfaces()) {
+            this.addChild(iface, info.getName());
+        }
+    }
+
+    private void addChild(final String parent, final String child) {
+        this.children.computeIfAbsent(parent, k -> ConcurrentHashMap.newKeySet()).add(child);
+    }
+
+    /**
+     * Gets whether the given class has been recorded in the index.
+     *
+     * @param klass The class name
+     * @return {@code true} if the class has been indexed
+     */
+    public boolean isIndexed(final String klass) {
+        return this.indexed.containsKey(klass);
+    }
+
+    /**
+     * Gets the class recorded in the index with the given name.
+     *
+     * @param klass The class name
+     * @return The class, or {@link Optional#empty()} if it hasn't been
+     *         indexed
+     */
+    public Optional<ClassInfo> getIndexed(final String klass) {
+        return Optional.ofNullable(this.indexed.get(klass));
+    }
+
+    /**
+     * Gets an unmodifiable view of the names of all the indexed classes.
+     *
+     * @return The indexed classes
+     */
+    public Set<String> getIndexedClasses() {
+        return Collections.unmodifiableSet(this.indexed.keySet());
+    }
+
+    /**
+     * Gets an unmodifiable view of the names of all the indexed classes that
+     * <i>directly</i> extend or implement the given class.
+     *
+     * @param klass The class name
+     * @return The direct subclasses and implementors
+     */
+    public Set<String> getDirectChildren(final String klass) {
+        final Set<String> direct = this.children.get(klass);
+        return direct != null ? Collections.unmodifiableSet(direct) : Collections.emptySet();
+    }
+
+    /**
+     * Gets the names of all the indexed classes that extend or implement
+     * the given class, recursively.
+     *
+     * @param klass The class name
+     * @return The direct and transitive subclasses and implementors
+     */
+    public Set<String> getChildren(final String klass) {
+        final Set<String> result = new HashSet<>();
+        final Deque<String> queue = new ArrayDeque<>();
+        queue.add(klass);
+
+        while (!queue.isEmpty()) {
+            final Set<String> direct = this.children.get(queue.poll());
+            if (direct == null) continue;
+
+            for (final String child : direct) {
+                if (result.add(child)) queue.add(child);
+            }
+        }
+
+        // A cyclic hierarchy would otherwise report the class as its own child
+        result.remove(klass);
+        return Collections.unmodifiableSet(result);
+    }
+
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Completes a batch of {@link InheritanceCompletable}s in parallel, such
+ * that each is only completed once all of its parents within the batch
+ * have been completed.
+ *
+ * <p>Independent parts of the hierarchy are completed in parallel on a
+ * {@link ForkJoinPool}, so the {@link InheritanceCompletable}s (and the
+ * {@link InheritanceProvider}) must be safe to complete concurrently where
+ * they aren't related. Anything that is already
+ * {@link InheritanceCompletable#isComplete() complete} is skipped.</p>
+ *
+ * <p>Should the batch contain a cyclic hierarchy, the classes in the cycle
+ * (and their children) are completed sequentially, after the rest of the
+ * batch - still parents first, other than within the cycle itself.</p>
+ *
+ * <p>Should completing a class fail, no further classes are completed,
+ * and the failure is rethrown once those already being completed have
+ * finished.</p>
+ *
+ * @since 0.5.0
+ */
+public class InheritanceCompleter {
+
+    private final InheritanceProvider provider;
+    private final Object context;
+    private final ForkJoinPool pool;
+
+    public InheritanceCompleter(final InheritanceProvider provider, final Object context, final ForkJoinPool pool) {
+        this.provider = provider;
+        this.context = context;
+        this.pool = pool;
+    }
+
+    public InheritanceCompleter(final InheritanceProvider provider) {
+        this(provider, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Completes all of the given {@link InheritanceCompletable}s, parents
+     * first, blocking until all have been completed.
+     *
+     * @param completables The completables
+     */
+    public void completeAll(final Collection<? extends InheritanceCompletable> completables) {
+        final List<Node> nodes = new ArrayList<>(completables.size());
+        final Map<String, Node> byName = new HashMap<>();
+        for (final InheritanceCompletable completable : completables) {
+            if (completable.isComplete()) continue;
+
+            final Optional<InheritanceProvider.ClassInfo> info = completable.provideInheritance(this.provider, this.context);
+            if (!info.isPresent()) continue;
+
+            final Node node = new Node(completable, info.get());
+            nodes.add(node);
+            byName.putIfAbsent(node.info.getName(), node);
+        }
+
+        // Link each node to its children within the batch
+        for (final Node node : nodes) {
+            for (final InheritanceProvider.ClassInfo parent : node.info.provideParents(this.provider)) {
+                final Node parentNode = byName.get(parent.getName());
+                if (parentNode != null && parentNode != node) {
+                    parentNode.children.add(node);
+                    node.parents.add(parentNode);
+                }
+            }
+        }
+
+        // Find the nodes that can be scheduled, any others are part of
+        // (or inherit from) a cyclic hierarchy
+        final List<Node> roots = new ArrayList<>();
+        final int schedulable = this.countSchedulable(nodes, roots);
+
+        if (schedulable > 0) {
+            new Run(schedulable).run(roots);
+        }
+
+        this.completeRemaining(nodes);
+    }
+
+    private int countSchedulable(final List<Node> nodes, final List<Node> roots) {
+        final Map<Node, Integer> remaining = new HashMap<>();
+        final Deque<Node> queue = new ArrayDeque<>();
+        for (final Node node : nodes) {
+            node.pending.set(node.parents.size());
+            if (node.parents.isEmpty()) {
+                roots.add(node);
+                queue.add(node);
+            }
+            else {
+                remaining.put(node, node.parents.size());
+            }
+        }
+
+        int count = 0;
+        while (!queue.isEmpty()) {
+            count++;
+            for (final Node child : queue.poll().children) {
+                if (remaining.merge(child, -1, Integer::sum) == 0) {
+                    remaining.remove(child);
+                    queue.add(child);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Completes the nodes left waiting on a cyclic hierarchy, parents
+     * first, breaking into each cycle where nothing else is ready.
+     *
+     * @param nodes The nodes
+     */
+    private void completeRemaining(final List<Node> nodes) {
+        final Deque<Node> ready = new ArrayDeque<>();
+        int next = 0;
+        while (true) {
+            Node node = ready.poll();
+            if (node == null) {
+                while (next < nodes.size() && nodes.get(next).pending.get() == 0) next++;
+                if (next == nodes.size()) return;
+
+                // Everything left waits on a parent, so walk up the waiting
+                // parents until reaching a class in the cycle
+                node = nodes.get(next);
+                final Set<Node> seen = new HashSet<>();
+                while (seen.add(node)) {
+                    for (final Node parent : node.parents) {
+                        if (parent.pending.get() > 0) {
+                            node = parent;
+                            break;
+                        }
+                    }
+                }
+                node.pending.set(0);
+            }
+
+            node.complete(this.provider);
+            for (final Node child : node.children) {
+                if (child.pending.get() > 0 && child.pending.decrementAndGet() == 0) {
+                    ready.add(child);
+                }
+            }
+        }
+    }
+
+    private static final class Node {
+
+        private final InheritanceCompletable completable;
+        private final InheritanceProvider.ClassInfo info;
+        private final List<Node> parents = new ArrayList<>();
+        private final List<Node> children = new ArrayList<>();
+        private final AtomicInteger pending = new AtomicInteger();
+
+        Node(final InheritanceCompletable completable, final InheritanceProvider.ClassInfo info) {
+            this.completable = completable;
+            this.info = info;
+        }
+
+        void complete(final InheritanceProvider provider) {
+            if (!this.completable.isComplete()) {
+                this.completable.complete(provider, this.info);
+            }
+        }
+
+    }
+
+    private final class Run {
+
+        private final AtomicInteger remaining;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Run(final int count) {
+            this.remaining = new AtomicInteger(count);
+        }
+
+        void run(final List<Node> roots) {
+            for (final Node root : roots) {
+                this.submit(root);
+            }
+
+            try {
+                this.done.join();
+            }
+            catch (final CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException) throw (RuntimeException) ex.getCause();
+                if (ex.getCause() instanceof Error) throw (Error) ex.getCause();
+                throw ex;
+            }
+        }
+
+        private void submit(final Node node) {
+            InheritanceCompleter.this.pool.execute(() -> this.complete(node));
+        }
+
+        private void complete(final Node node) {
+            // Once anything has failed, the rest of the run is skipped
+            if (this.failure.get() == null) {
+                try {
+                    node.complete(InheritanceCompleter.this.provider);
+                }
+                catch (final Throwable ex) {
+                    if (!this.failure.compareAndSet(null, ex)) this.failure.get().addSuppressed(ex);
+                }
+            }
+
+            // Children are released even if this node failed, so the run
+            // only finishes once nothing is left running
+            for (final Node child : node.children) {
+                if (child.pending.decrementAndGet() == 0) {
+                    this.submit(child);
+                }
+            }
+            if (this.remaining.decrementAndGet() == 0) {
+                final Throwable failure = this.failure.get();
+                if (failure != null) {
+                    this.done.completeExceptionally(failure);
+                }
+                else {
+                    this.done.complete(null);
+                }
+            }
+        }
+
+    }
+
+}
@@ -33,6 +33,7 @@ package org.cadixdev.bombe.analysis;
 import org.cadixdev.bombe.type.signature.FieldSignature;
 import org.cadixdev.bombe.type.signature.MethodSignature;
 
+import java.lang.reflect.Modifier;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -41,7 +42,9 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Predicate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * An inheritance provider stores inheritance information on classes, which
@@ -77,6 +80,65 @@ public interface InheritanceProvider {
         return this.provide(klass);
     }
 
+    /**
+     * Gets the class information for the given class name, if available,
+     * without blocking the calling thread.
+     *
+     * <p>The default implementation provides the class synchronously, and
+     * returns a completed future. Providers backed by slow I/O should
+     * override this method, or be wrapped with an
+     * {@link AsyncInheritanceProvider}.</p>
+     *
+     * @param klass The class name
+     * @return A future of the class information wrapped in an {@link Optional}
+     * @since 0.5.0
+     */
+    default CompletableFuture<Optional<ClassInfo>> provideAsync(final String klass) {
+        final CompletableFuture<Optional<ClassInfo>> future = new CompletableFuture<>();
+        try {
+            future.complete(this.provide(klass));
+        }
+        catch (final RuntimeException ex) {
+            future.completeExceptionally(ex);
+        }
+        return future;
+    }
+
+    /**
+     * Gets the class information for all of the given classes, and all of
+     * their parents, loading them in parallel on the
+     * {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param klasses The class names
+     * @return An unmodifiable map of class names to the class information,
+     *         for all of the classes that could be provided
+     * @see #provideAll(Collection, Executor)
+     * @since 0.5.0
+     */
+    default Map<String, ClassInfo> provideAll(final Collection<String> klasses) {
+        return this.provideAll(klasses, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Gets the class information for all of the given classes, and all of
+     * their parents, loading them in parallel on the given {@link Executor}.
+     *
+     * <p>The super class and interfaces of each class are queued to be
+     * loaded as soon as the class has been provided, so the whole hierarchy
+     * is loaded in parallel. This method will block until all of the classes
+     * have been loaded, and requires this provider to be safe for concurrent
+     * use.</p>
+     *
+     * @param klasses The class names
+     * @param executor The executor to load the classes on
+     * @return An unmodifiable map of class names to the class information,
+     *         for all of the classes that could be provided
+     * @since 0.5.0
+     */
+    default Map<String, ClassInfo> provideAll(final Collection<String> klasses, final Executor executor) {
+        return new BulkInheritanceLoader(this, executor).load(klasses);
+    }
+
     /**
      * A wrapper used to store inheritance information about classes.
      */
@@ -181,16 +243,24 @@ public interface InheritanceProvider {
          * @since 0.3.0
          */
         default void provideParents(final InheritanceProvider provider, final Collection<ClassInfo> parents) {
-            provider.provide(this.getSuperName()).ifPresent(p -> {
-                parents.add(p);
-                p.provideParents(provider, parents);
-            });
-            for (final String iface : this.getInterfaces()) {
-                provider.provide(iface).ifPresent(p -> {
-                    parents.add(p);
-                    p.provideParents(provider, parents);
-                });
-            }
+            InheritanceTraversal.collectParents(this, provider, parents);
+        }
+
+        /**
+         * Gets an unmodifiable view of all parents of this class, recursively,
+         * without blocking the calling thread.
+         *
+         * <p>The parents are requested using
+         * {@link InheritanceProvider#provideAsync(String)}, with the requests
+         * for each parent chained onto its child.</p>
+         *
+         * @param provider The provider to use for looking up parent classes
+         * @return A future of a set with all parents of the class (recursively)
+         * @see #provideParents(InheritanceProvider)
+         * @since 0.5.0
+         */
+        default CompletableFuture<Set<ClassInfo>> provideParentsAsync(final InheritanceProvider provider) {
+            return InheritanceTraversal.collectParentsAsync(this, provider);
         }
 
         /**
@@ -206,9 +276,7 @@ public interface InheritanceProvider {
          * @since 0.3.0
          */
         default boolean hasParent(final String klass, final InheritanceProvider provider) {
-            return this.provideParents(provider).stream()
-                    .map(ClassInfo::getName)
-                    .anyMatch(Predicate.isEqual(klass));
+            return InheritanceTraversal.hasParent(this, klass, provider);
         }
 
         /**
@@ -224,7 +292,7 @@ public interface InheritanceProvider {
          * @since 0.3.0
          */
         default boolean hasParent(final ClassInfo info, final InheritanceProvider provider) {
-            return this.provideParents(provider).contains(info);
+            return this.hasParent(info.getName(), provider);
         }
 
         /**
@@ -254,6 +322,57 @@ public interface InheritanceProvider {
             return this.getMethods().getOrDefault(method, InheritanceType.NONE);
         }
 
+        /**
+         * Returns the raw access flags of this class, as in its class file -
+         * see {@link Modifier} for the common flags.
+         *
+         * <p>Implementations that don't retain access flags approximate
+         * them from {@link #isInterface()}.</p>
+         *
+         * @return The access flags
+         * @since 0.5.0
+         */
+        default int getAccess() {
+            return this.isInterface() ? Modifier.INTERFACE | Modifier.ABSTRACT : 0;
+        }
+
+        /**
+         * Returns the raw access flags of a field declared in this class
+         * that matches the given {@link FieldSignature}, as in its class
+         * file - including static, final and synthetic.
+         *
+         * <p>Implementations that don't retain access flags approximate
+         * them from the field's {@link InheritanceType}.</p>
+         *
+         * @param field The field signature
+         * @return The access flags, or {@code -1} if no such field is declared
+         * @since 0.5.0
+         */
+        default int getFieldAccess(final FieldSignature field) {
+            final InheritanceType type = field.getType().isPresent() ?
+                    this.getFields().get(field) :
+                    this.getFieldsByName().get(field.getName());
+            return type != null ? type.toModifiers() : -1;
+        }
+
+        /**
+         * Returns the raw access flags of a method declared in this class
+         * that matches the given {@link MethodSignature}, as in its class
+         * file - including static, final, abstract, synthetic, bridge and
+         * varargs.
+         *
+         * <p>Implementations that don't retain access flags approximate
+         * them from the method's {@link InheritanceType}.</p>
+         *
+         * @param method The method signature
+         * @return The access flags, or {@code -1} if no such method is declared
+         * @since 0.5.0
+         */
+        default int getMethodAccess(final MethodSignature method) {
+            final InheritanceType type = this.getMethods().get(method);
+            return type != null ? type.toModifiers() : -1;
+        }
+
         /**
          * Returns whether the given child class could inherit the given field
          * from this parent class.
@@ -343,7 +462,7 @@ public interface InheritanceProvider {
             @Override
             public final boolean equals(final Object o) {
                 if (this == o) return true;
-                if (!(o instanceof InheritanceProvider)) return false;
+                if (!(o instanceof ClassInfo)) return false;
                 final ClassInfo that = (ClassInfo) o;
                 return Objects.equals(this.getName(), that.getName());
             }
@@ -380,7 +499,7 @@ public interface InheritanceProvider {
             protected final Map<String, InheritanceType> fieldsByName;
             protected final Map<MethodSignature, InheritanceType> methods;
 
-            protected Set<ClassInfo> parents;
+            protected volatile Set<ClassInfo> parents;
 
             public Impl(final String name, boolean isInterface, final String superName, List<String> interfaces,
                     Map<FieldSignature, InheritanceType> fields, Map<String, InheritanceType> fieldsByName,
@@ -431,10 +550,13 @@ public interface InheritanceProvider {
 
             @Override
             public Set<ClassInfo> provideParents(final InheritanceProvider provider) {
-                if (this.parents == null) {
-                    super.provideParents(provider, this.parents = new HashSet<>());
+                Set<ClassInfo> parents = this.parents;
+                if (parents == null) {
+                    final Set<ClassInfo> result = new HashSet<>();
+                    super.provideParents(provider, result);
+                    this.parents = parents = Collections.unmodifiableSet(result);
                 }
-                return this.parents;
+                return parents;
             }
 
             @Override
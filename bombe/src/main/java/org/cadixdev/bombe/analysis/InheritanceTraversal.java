@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis;
+
+import org.cadixdev.bombe.jfr.FlightRecorderSupport;
+import org.cadixdev.bombe.jfr.HierarchyResolveEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Iterative, breadth-first traversal of the parents of a class, visiting
+ * each parent once. Cyclic hierarchies are tolerated, and parent sets that
+ * have already been computed for a shared parent are reused rather than
+ * walked again.
+ */
+final class InheritanceTraversal {
+
+    /**
+     * Populates the given collection with all parents of the given class.
+     *
+     * @param info The class
+     * @param provider The provider to use for looking up parent classes
+     * @param parents The collection to populate
+     */
+    static void collectParents(final InheritanceProvider.ClassInfo info, final InheritanceProvider provider,
+            final Collection<InheritanceProvider.ClassInfo> parents) {
+        if (FlightRecorderSupport.isAvailable()) {
+            final HierarchyResolveEvent event = new HierarchyResolveEvent();
+            event.begin();
+            final int count = walkParents(info, provider, parents);
+            event.complete(info.getName(), count);
+        }
+        else {
+            walkParents(info, provider, parents);
+        }
+    }
+
+    /**
+     * Walks the parents of the given class into the given collection.
+     *
+     * @return The number of parents that could be provided
+     */
+    private static int walkParents(final InheritanceProvider.ClassInfo info, final InheritanceProvider provider,
+            final Collection<InheritanceProvider.ClassInfo> parents) {
+        final Set<String> visited = new HashSet<>();
+        visited.add(info.getName());
+
+        final Deque<InheritanceProvider.ClassInfo> queue = new ArrayDeque<>();
+        queue.add(info);
+
+        int count = 0;
+        while (!queue.isEmpty()) {
+            final InheritanceProvider.ClassInfo current = queue.poll();
+            count += visit(current.getSuperName(), provider, visited, queue, parents);
+            for (final String iface : current.getInterfaces()) {
+                count += visit(iface, provider, visited, queue, parents);
+            }
+        }
+        return count;
+    }
+
+    private static int visit(final String klass, final InheritanceProvider provider, final Set<String> visited,
+            final Deque<InheritanceProvider.ClassInfo> queue, final Collection<InheritanceProvider.ClassInfo> parents) {
+        if (klass.isEmpty() || !visited.add(klass)) return 0;
+
+        final InheritanceProvider.ClassInfo parent = provider.provide(klass).orElse(null);
+        if (parent == null) return 0;
+        parents.add(parent);
+
+        final Set<InheritanceProvider.ClassInfo> known = getCachedParents(parent);
+        if (known == null) {
+            queue.add(parent);
+            return 1;
+        }
+
+        // The parents of this class are already known, no need to walk them
+        int count = 1;
+        for (final InheritanceProvider.ClassInfo ancestor : known) {
+            if (visited.add(ancestor.getName())) {
+                parents.add(ancestor);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Collects all parents of the given class asynchronously, chaining the
+     * request for each parent onto the request for its child.
+     *
+     * @param info The class
+     * @param provider The provider to use for looking up parent classes
+     * @return A future of all parents of the class
+     */
+    static CompletableFuture<Set<InheritanceProvider.ClassInfo>> collectParentsAsync(final InheritanceProvider.ClassInfo info,
+            final InheritanceProvider provider) {
+        final Set<String> visited = ConcurrentHashMap.newKeySet();
+        visited.add(info.getName());
+        final Set<InheritanceProvider.ClassInfo> parents = ConcurrentHashMap.newKeySet();
+
+        return visitParentsAsync(info, provider, visited, parents)
+                .thenApply(v -> Collections.unmodifiableSet(parents));
+    }
+
+    private static CompletableFuture<Void> visitParentsAsync(final InheritanceProvider.ClassInfo info, final InheritanceProvider provider,
+            final Set<String> visited, final Set<InheritanceProvider.ClassInfo> parents) {
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(info.getInterfaces().size() + 1);
+        futures.add(visitAsync(info.getSuperName(), provider, visited, parents));
+        for (final String iface : info.getInterfaces()) {
+            futures.add(visitAsync(iface, provider, visited, parents));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    private static CompletableFuture<Void> visitAsync(final String klass, final InheritanceProvider provider,
+            final Set<String> visited, final Set<InheritanceProvider.ClassInfo> parents) {
+        if (klass.isEmpty() || !visited.add(klass)) return CompletableFuture.completedFuture(null);
+
+        return provider.provideAsync(klass).thenCompose(info -> {
+            if (!info.isPresent()) return CompletableFuture.completedFuture(null);
+            final InheritanceProvider.ClassInfo parent = info.get();
+            parents.add(parent);
+
+            final Set<InheritanceProvider.ClassInfo> known = getCachedParents(parent);
+            if (known == null) return visitParentsAsync(parent, provider, visited, parents);
+
+            // The parents of this class are already known, no need to walk them
+            for (final InheritanceProvider.ClassInfo ancestor : known) {
+                if (visited.add(ancestor.getName())) {
+                    parents.add(ancestor);
+                }
+            }
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    /**
+     * Returns whether the given class has a parent with the given name,
+     * stopping as soon as it is found.
+     *
+     * @param info The class
+     * @param klass The name of the parent class to search for
+     * @param provider The provider to use for looking up parent classes
+     * @return {@code true} if the class inherits from the specified class
+     */
+    static boolean hasParent(final InheritanceProvider.ClassInfo info, final String klass, final InheritanceProvider provider) {
+        final Set<InheritanceProvider.ClassInfo> cached = getCachedParents(info);
+        if (cached != null) return containsName(cached, klass);
+
+        final Set<String> visited = new HashSet<>();
+        visited.add(info.getName());
+
+        final Deque<InheritanceProvider.ClassInfo> queue = new ArrayDeque<>();
+        queue.add(info);
+
+        while (!queue.isEmpty()) {
+            final InheritanceProvider.ClassInfo current = queue.poll();
+            if (current.getSuperName().equals(klass) || current.getInterfaces().contains(klass)) return true;
+
+            if (!current.getSuperName().isEmpty() && visited.add(current.getSuperName())) {
+                if (enqueue(current.getSuperName(), klass, provider, queue)) return true;
+            }
+            for (final String iface : current.getInterfaces()) {
+                if (visited.add(iface) && enqueue(iface, klass, provider, queue)) return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean enqueue(final String parent, final String klass, final InheritanceProvider provider,
+            final Deque<InheritanceProvider.ClassInfo> queue) {
+        final Optional<InheritanceProvider.ClassInfo> info = provider.provide(parent);
+        if (!info.isPresent()) return false;
+
+        final Set<InheritanceProvider.ClassInfo> known = getCachedParents(info.get());
+        if (known != null) return containsName(known, klass);
+
+        queue.add(info.get());
+        return false;
+    }
+
+    private static boolean containsName(final Set<InheritanceProvider.ClassInfo> classes, final String klass) {
+        for (final InheritanceProvider.ClassInfo info : classes) {
+            if (info.getName().equals(klass)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the parents of the given class, if they have already been
+     * computed and cached by the class.
+     *
+     * @param info The class
+     * @return The cached parents, or {@code null} if unavailable
+     */
+    private static Set<InheritanceProvider.ClassInfo> getCachedParents(final InheritanceProvider.ClassInfo info) {
+        if (info instanceof InheritanceProvider.ClassInfo.Impl) {
+            return ((InheritanceProvider.ClassInfo.Impl) info).parents;
+        }
+        if (info instanceof CompactClassInfo) {
+            return ((CompactClassInfo) info).getCachedParents();
+        }
+        if (info instanceof LazyInheritanceClassInfo) {
+            return ((LazyInheritanceClassInfo) info).getCachedParents();
+        }
+        if (info instanceof DeferredClassInfo) {
+            return ((DeferredClassInfo) info).getCachedParents();
+        }
+        return null;
+    }
+
+    private InheritanceTraversal() {
+    }
+
+}
@@ -82,4 +82,25 @@ public enum InheritanceType {
         }
     }
 
+    /**
+     * Returns the access modifier corresponding to this inheritance type,
+     * for approximating the modifiers of a member where they aren't known.
+     *
+     * @return The access modifier, or {@code 0} for package-private
+     * @see Modifier
+     * @since 0.5.0
+     */
+    public int toModifiers() {
+        switch (this) {
+            case PUBLIC:
+                return Modifier.PUBLIC;
+            case PROTECTED:
+                return Modifier.PROTECTED;
+            case PACKAGE_PRIVATE:
+                return 0;
+            default:
+                return Modifier.PRIVATE;
+        }
+    }
+
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An {@link InheritanceProvider} that layers a cheap, per-job overlay on top
+ * of a frozen base provider shared between jobs - for example, the classes
+ * of a job's project over those of the JDK and its libraries.
+ *
+ * <p>Classes are looked for in the base first, then the overlay, and
+ * parent walks cross between layers transparently. The overlay can't
+ * shadow classes of the base, so the classes of the base are provided as
+ * they are, and the parents they cache once walked are shared between all
+ * jobs. The overlay caches everything it provides itself, including
+ * misses, and never writes to the base, so it can be thrown away at the
+ * end of a job.</p>
+ *
+ * <p>The base must not change while in use, and its classes must only
+ * extend classes of the base - such as a
+ * {@link InMemoryInheritanceProvider#snapshot() snapshot} of an
+ * {@link InMemoryInheritanceProvider}. It should also be cheap to miss in,
+ * as each class of the overlay is first looked for in the base.</p>
+ *
+ * @since 0.5.0
+ */
+public class LayeredInheritanceProvider implements InheritanceProvider {
+
+    private static final InheritanceProvider EMPTY = klass -> Optional.empty();
+
+    private final InheritanceProvider base;
+    private final InheritanceProvider overlay;
+    private final ConcurrentMap<String, Optional<ClassInfo>> classes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new layered provider, with an overlay backed by the given
+     * provider.
+     *
+     * @param base The shared, frozen base provider
+     * @param overlay The provider of the overlay's classes
+     */
+    public LayeredInheritanceProvider(final InheritanceProvider base, final InheritanceProvider overlay) {
+        this.base = base;
+        this.overlay = overlay;
+    }
+
+    /**
+     * Creates a new layered provider, with an overlay of only the classes
+     * {@link #register(ClassInfo) registered} with it.
+     *
+     * @param base The shared, frozen base provider
+     */
+    public LayeredInheritanceProvider(final InheritanceProvider base) {
+        this(base, EMPTY);
+    }
+
+    /**
+     * Gets the shared base provider.
+     *
+     * @return The base provider
+     */
+    public InheritanceProvider getBase() {
+        return this.base;
+    }
+
+    /**
+     * Registers the given class with the overlay.
+     *
+     * @param info The class
+     * @throws IllegalArgumentException If the class is provided by the base
+     */
+    public void register(final ClassInfo info) {
+        if (this.base.provide(info.getName()).isPresent()) {
+            throw new IllegalArgumentException("Can't shadow " + info.getName() + " of the base");
+        }
+        this.classes.put(info.getName(), Optional.of(info));
+    }
+
+    @Override
+    public Optional<ClassInfo> provide(final String klass) {
+        final Optional<ClassInfo> base = this.base.provide(klass);
+        if (base.isPresent()) return base;
+
+        final Optional<ClassInfo> cached = this.classes.get(klass);
+        if (cached != null) return cached;
+
+        final Optional<ClassInfo> info = this.overlay.provide(klass).map(ClassInfo::lazy);
+        final Optional<ClassInfo> existing = this.classes.putIfAbsent(klass, info);
+        return existing != null ? existing : info;
+    }
+
+}
@@ -34,25 +34,46 @@ import org.cadixdev.bombe.type.signature.FieldSignature;
 import org.cadixdev.bombe.type.signature.MethodSignature;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 final class LazyInheritanceClassInfo extends InheritanceProvider.ClassInfo.Abstract {
 
+    /**
+     * Creates a view of the given class that walks and caches its parents
+     * itself, rather than through the class. The parents cached by a shared
+     * class are then unaffected by the provider the view is walked with.
+     *
+     * @param info The class
+     * @return The view
+     */
+    static LazyInheritanceClassInfo scoped(final InheritanceProvider.ClassInfo info) {
+        return new LazyInheritanceClassInfo(info, true);
+    }
+
     private final InheritanceProvider.ClassInfo provider;
+    private final boolean scoped;
 
-    // Cached data
+    // Cached data - volatile for safe publication between threads, a value may
+    // be computed more than once under contention but reads never lock
     private final String name;
-    private String superName;
-    private List<String> interfaces;
-    private Map<FieldSignature, InheritanceType> fields;
-    private Map<String, InheritanceType> fieldsByName;
-    private Map<MethodSignature, InheritanceType> methods;
-    private Set<InheritanceProvider.ClassInfo> parents;
+    private volatile String superName;
+    private volatile List<String> interfaces;
+    private volatile Map<FieldSignature, InheritanceType> fields;
+    private volatile Map<String, InheritanceType> fieldsByName;
+    private volatile Map<MethodSignature, InheritanceType> methods;
+    private volatile Set<InheritanceProvider.ClassInfo> parents;
 
     LazyInheritanceClassInfo(final InheritanceProvider.ClassInfo provider) {
+        this(provider, false);
+    }
+
+    private LazyInheritanceClassInfo(final InheritanceProvider.ClassInfo provider, final boolean scoped) {
         this.provider = provider;
+        this.scoped = scoped;
         this.name = provider.getName();
     }
 
@@ -68,49 +89,82 @@ final class LazyInheritanceClassInfo extends InheritanceProvider.ClassInfo.Abstr
 
     @Override
     public String getSuperName() {
-        if (this.superName == null) {
-            this.superName = this.provider.getSuperName();
+        String superName = this.superName;
+        if (superName == null) {
+            this.superName = superName = this.provider.getSuperName();
         }
-        return this.superName;
+        return superName;
     }
 
     @Override
     public List<String> getInterfaces() {
-        if (this.interfaces == null) {
-            this.interfaces = this.provider.getInterfaces();
+        List<String> interfaces = this.interfaces;
+        if (interfaces == null) {
+            this.interfaces = interfaces = this.provider.getInterfaces();
         }
-        return this.interfaces;
+        return interfaces;
     }
 
     @Override
     public Map<FieldSignature, InheritanceType> getFields() {
-        if (this.fields == null) {
-            this.fields = this.provider.getFields();
+        Map<FieldSignature, InheritanceType> fields = this.fields;
+        if (fields == null) {
+            this.fields = fields = this.provider.getFields();
         }
-        return this.fields;
+        return fields;
     }
 
     @Override
     public Map<String, InheritanceType> getFieldsByName() {
-        if (this.fieldsByName == null) {
-            this.fieldsByName = this.provider.getFieldsByName();
+        Map<String, InheritanceType> fieldsByName = this.fieldsByName;
+        if (fieldsByName == null) {
+            this.fieldsByName = fieldsByName = this.provider.getFieldsByName();
         }
-        return this.fieldsByName;
+        return fieldsByName;
     }
 
     @Override
     public Map<MethodSignature, InheritanceType> getMethods() {
-        if (this.methods == null) {
-            this.methods = this.provider.getMethods();
+        Map<MethodSignature, InheritanceType> methods = this.methods;
+        if (methods == null) {
+            this.methods = methods = this.provider.getMethods();
         }
-        return this.methods;
+        return methods;
+    }
+
+    @Override
+    public int getAccess() {
+        return this.provider.getAccess();
+    }
+
+    @Override
+    public int getFieldAccess(final FieldSignature field) {
+        return this.provider.getFieldAccess(field);
+    }
+
+    @Override
+    public int getMethodAccess(final MethodSignature method) {
+        return this.provider.getMethodAccess(method);
     }
 
     @Override
     public Set<InheritanceProvider.ClassInfo> provideParents(final InheritanceProvider provider) {
-        if (this.parents == null) {
-            this.parents = this.provider.provideParents(provider);
+        Set<InheritanceProvider.ClassInfo> parents = this.parents;
+        if (parents == null) {
+            if (this.scoped) {
+                final Set<InheritanceProvider.ClassInfo> result = new HashSet<>();
+                InheritanceTraversal.collectParents(this, provider, result);
+                parents = Collections.unmodifiableSet(result);
+            }
+            else {
+                parents = this.provider.provideParents(provider);
+            }
+            this.parents = parents;
         }
+        return parents;
+    }
+
+    Set<InheritanceProvider.ClassInfo> getCachedParents() {
         return this.parents;
     }
 
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis;
+
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves symbolic references to fields and methods to the class that
+ * declares them, following the resolution rules of the JVM specification.
+ *
+ * <p>Results are memoized per owner and signature, so repeated resolution
+ * of the same reference is a single lookup. Access checks are not
+ * performed, as with the JVM these follow resolution.</p>
+ *
+ * @see <a href="https://docs.oracle.com/javase/specs/jvms/se11/html/jvms-5.html#jvms-5.4.3">JVMS 5.4.3</a>
+ * @since 0.5.0
+ */
+public class MemberResolver {
+
+    private static final String OBJECT = "java/lang/Object";
+
+    private final InheritanceProvider provider;
+    private final ConcurrentMap<MemberKey, Optional<InheritanceProvider.ClassInfo>> fields = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MemberKey, Optional<InheritanceProvider.ClassInfo>> methods = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MemberKey, Optional<InheritanceProvider.ClassInfo>> interfaceMethods = new ConcurrentHashMap<>();
+
+    public MemberResolver(final InheritanceProvider provider) {
+        this.provider = provider;
+    }
+
+    /**
+     * Resolves a field reference, as with JVMS 5.4.3.2 - searching the
+     * class, then its superinterfaces, then its super class, recursively.
+     *
+     * @param owner The class referenced as owning the field
+     * @param field The field signature
+     * @return The class declaring the field, or {@link Optional#empty()}
+     *         if the field could not be resolved
+     */
+    public Optional<InheritanceProvider.ClassInfo> resolveField(final String owner, final FieldSignature field) {
+        return this.resolveField(owner, field, new HashSet<>());
+    }
+
+    private Optional<InheritanceProvider.ClassInfo> resolveField(final String owner, final FieldSignature field, final Set<String> visiting) {
+        final MemberKey key = new MemberKey(owner, field);
+        final Optional<InheritanceProvider.ClassInfo> cached = this.fields.get(key);
+        if (cached != null) return cached;
+
+        // Guard against cyclic hierarchies
+        if (owner.isEmpty() || !visiting.add(owner)) return Optional.empty();
+
+        final Optional<InheritanceProvider.ClassInfo> info = this.provider.provide(owner);
+        if (!info.isPresent()) return cache(this.fields, key, Optional.empty());
+        if (declaresField(info.get(), field)) return cache(this.fields, key, info);
+
+        for (final String iface : info.get().getInterfaces()) {
+            final Optional<InheritanceProvider.ClassInfo> resolved = this.resolveField(iface, field, visiting);
+            if (resolved.isPresent()) return cache(this.fields, key, resolved);
+        }
+        return cache(this.fields, key, this.resolveField(info.get().getSuperName(), field, visiting));
+    }
+
+    /**
+     * Resolves a method reference to a class, as with JVMS 5.4.3.3 -
+     * searching the class and its super classes, then the maximally-specific
+     * methods of its superinterfaces.
+     *
+     * @param owner The class referenced as owning the method
+     * @param method The method signature
+     * @return The class declaring the method, or {@link Optional#empty()}
+     *         if the method could not be resolved, or the owner is an
+     *         interface
+     */
+    public Optional<InheritanceProvider.ClassInfo> resolveMethod(final String owner, final MethodSignature method) {
+        final MemberKey key = new MemberKey(owner, method);
+        final Optional<InheritanceProvider.ClassInfo> cached = this.methods.get(key);
+        if (cached != null) return cached;
+
+        final Optional<InheritanceProvider.ClassInfo> info = this.provider.provide(owner);
+        if (!info.isPresent() || info.get().isInterface()) return cache(this.methods, key, Optional.empty());
+
+        // Search the class and its super classes
+        final Set<String> visited = new HashSet<>();
+        InheritanceProvider.ClassInfo current = info.get();
+        while (current != null && visited.add(current.getName())) {
+            if (declaresMethod(current, method)) return cache(this.methods, key, Optional.of(current));
+            current = current.getSuperName().isEmpty() ? null : this.provider.provide(current.getSuperName()).orElse(null);
+        }
+
+        return cache(this.methods, key, this.resolveMaximallySpecific(info.get(), method));
+    }
+
+    /**
+     * Resolves a method reference to an interface, as with JVMS 5.4.3.4 -
+     * searching the interface, then {@link Object}, then the
+     * maximally-specific methods of its superinterfaces.
+     *
+     * @param owner The interface referenced as owning the method
+     * @param method The method signature
+     * @return The class declaring the method, or {@link Optional#empty()}
+     *         if the method could not be resolved, or the owner is not an
+     *         interface
+     */
+    public Optional<InheritanceProvider.ClassInfo> resolveInterfaceMethod(final String owner, final MethodSignature method) {
+        final MemberKey key = new MemberKey(owner, method);
+        final Optional<InheritanceProvider.ClassInfo> cached = this.interfaceMethods.get(key);
+        if (cached != null) return cached;
+
+        final Optional<InheritanceProvider.ClassInfo> info = this.provider.provide(owner);
+        if (!info.isPresent() || !info.get().isInterface()) return cache(this.interfaceMethods, key, Optional.empty());
+        if (declaresMethod(info.get(), method)) return cache(this.interfaceMethods, key, info);
+
+        final Optional<InheritanceProvider.ClassInfo> object = this.provider.provide(OBJECT);
+        if (object.isPresent() && isPublicInstance(object.get().getMethodAccess(method))) {
+            return cache(this.interfaceMethods, key, object);
+        }
+
+        return cache(this.interfaceMethods, key, this.resolveMaximallySpecific(info.get(), method));
+    }
+
+    /**
+     * Finds the maximally-specific superinterface method of the given class.
+     * Where there isn't exactly one that is non-abstract, the one that comes
+     * first by name is chosen - the JVM specification allows an arbitrary
+     * choice.
+     *
+     * @param klass The class
+     * @param method The method signature
+     * @return The interface declaring the method
+     */
+    private Optional<InheritanceProvider.ClassInfo> resolveMaximallySpecific(final InheritanceProvider.ClassInfo klass,
+            final MethodSignature method) {
+        final List<InheritanceProvider.ClassInfo> candidates = new ArrayList<>();
+        for (final InheritanceProvider.ClassInfo parent : klass.provideParents(this.provider)) {
+            // Private and static methods are excluded
+            final int access = parent.getMethodAccess(method);
+            if (parent.isInterface() && access != -1 && (access & (Modifier.PRIVATE | Modifier.STATIC)) == 0) {
+                candidates.add(parent);
+            }
+        }
+
+        final List<InheritanceProvider.ClassInfo> maximal = new ArrayList<>();
+        final List<InheritanceProvider.ClassInfo> concrete = new ArrayList<>();
+        for (final InheritanceProvider.ClassInfo candidate : candidates) {
+            if (candidates.stream().anyMatch(other -> other != candidate && other.hasParent(candidate.getName(), this.provider))) continue;
+
+            maximal.add(candidate);
+            if ((candidate.getMethodAccess(method) & Modifier.ABSTRACT) == 0) concrete.add(candidate);
+        }
+
+        if (concrete.size() == 1) return Optional.of(concrete.get(0));
+        return maximal.stream().min(Comparator.comparing(InheritanceProvider.ClassInfo::getName));
+    }
+
+    private static boolean isPublicInstance(final int access) {
+        return access != -1 && (access & Modifier.PUBLIC) != 0 && (access & Modifier.STATIC) == 0;
+    }
+
+    private static boolean declaresField(final InheritanceProvider.ClassInfo info, final FieldSignature field) {
+        return field.getType().isPresent() ?
+                info.getFields().containsKey(field) :
+                info.getFieldsByName().containsKey(field.getName());
+    }
+
+    private static boolean declaresMethod(final InheritanceProvider.ClassInfo info, final MethodSignature method) {
+        return info.getMethods().containsKey(method);
+    }
+
+    private static Optional<InheritanceProvider.ClassInfo> cache(final ConcurrentMap<MemberKey, Optional<InheritanceProvider.ClassInfo>> cache,
+            final MemberKey key, final Optional<InheritanceProvider.ClassInfo> result) {
+        final Optional<InheritanceProvider.ClassInfo> existing = cache.putIfAbsent(key, result);
+        return existing != null ? existing : result;
+    }
+
+}
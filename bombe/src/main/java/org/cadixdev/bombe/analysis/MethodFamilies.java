@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis;
+
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.lang.reflect.Modifier;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A partition of all methods of a set of classes into families, where each
+ * family is a set of methods that override, or are overridden by, one
+ * another - including interface methods that only meet in a class
+ * inheriting both. The methods of a family must be renamed together.
+ *
+ * <p>Families are computed in a single pass over the classes, with a
+ * concurrent union-find, after which the family of any method is a single
+ * lookup.</p>
+ *
+ * @since 0.5.0
+ */
+public final class MethodFamilies {
+
+    /**
+     * Computes the method families of the given classes, and all of their
+     * parents, using the common fork-join pool.
+     *
+     * @param provider The inheritance provider
+     * @param klasses The names of the classes
+     * @return The method families
+     */
+    public static MethodFamilies compute(final InheritanceProvider provider, final Collection<String> klasses) {
+        return compute(provider, klasses, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the method families of the given classes, and all of their
+     * parents, using the given executor.
+     *
+     * @param provider The inheritance provider
+     * @param klasses The names of the classes
+     * @param executor The executor to compute families with
+     * @return The method families
+     */
+    public static MethodFamilies compute(final InheritanceProvider provider, final Collection<String> klasses,
+            final Executor executor) {
+        final Map<String, InheritanceProvider.ClassInfo> classes = provider.provideAll(klasses, executor);
+        final InheritanceProvider loaded = klass -> Optional.ofNullable(classes.get(klass));
+
+        // Assign ids in name order, so families are stable between runs
+        final List<String> names = new ArrayList<>(classes.keySet());
+        Collections.sort(names);
+        final Map<MemberKey, Integer> ids = new HashMap<>();
+        final List<MemberKey> members = new ArrayList<>();
+        for (final String name : names) {
+            for (final MethodSignature method : classes.get(name).getMethods().keySet()) {
+                if (method.getName().startsWith("<")) continue;
+                final MemberKey key = new MemberKey(name, method);
+                ids.put(key, members.size());
+                members.add(key);
+            }
+        }
+
+        final UnionFind families = new UnionFind(members.size());
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(names.size());
+        for (final InheritanceProvider.ClassInfo info : classes.values()) {
+            futures.add(CompletableFuture.runAsync(() -> unionInherited(info, loaded, ids, families), executor));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        }
+        catch (final CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) throw (RuntimeException) ex.getCause();
+            if (ex.getCause() instanceof Error) throw (Error) ex.getCause();
+            throw ex;
+        }
+
+        return new MethodFamilies(ids, members, families.flatten());
+    }
+
+    /**
+     * Unions each method the given class declares with the methods it
+     * overrides. Where the class doesn't declare a method, the
+     * implementation it inherits from its super classes is instead unioned
+     * with the interface methods it implements in the class.
+     */
+    private static void unionInherited(final InheritanceProvider.ClassInfo info, final InheritanceProvider provider,
+            final Map<MemberKey, Integer> ids, final UnionFind families) {
+        final Map<MethodSignature, Integer> anchors = new HashMap<>();
+        final Set<MethodSignature> declared = new HashSet<>();
+        for (final Map.Entry<MethodSignature, InheritanceType> method : info.getMethods().entrySet()) {
+            if (method.getKey().getName().startsWith("<")) continue;
+            declared.add(method.getKey());
+
+            // Private and static methods of the class don't override anything
+            if (method.getValue() == InheritanceType.NONE || Modifier.isStatic(info.getMethodAccess(method.getKey()))) continue;
+            anchors.put(method.getKey(), ids.get(new MemberKey(info.getName(), method.getKey())));
+        }
+
+        // A declared method overrides every method of its super classes it
+        // could inherit, otherwise the first such method is the inherited
+        // implementation - which only overrides the methods further up
+        // where the class declaring it does
+        final Set<String> visited = new HashSet<>();
+        for (String name = info.getSuperName(); !name.isEmpty() && visited.add(name); ) {
+            final InheritanceProvider.ClassInfo parent = provider.provide(name).orElse(null);
+            if (parent == null) break;
+
+            for (final MethodSignature method : visible(info, parent)) {
+                if (declared.contains(method) && !anchors.containsKey(method)) continue;
+
+                final int id = ids.get(new MemberKey(parent.getName(), method));
+                final Integer anchor = anchors.putIfAbsent(method, id);
+                if (anchor != null && declared.contains(method)) families.union(anchor, id);
+            }
+            name = parent.getSuperName();
+        }
+
+        // Interface methods are implemented by whichever method the class
+        // declares or inherits, and meet one another where there is none
+        for (final InheritanceProvider.ClassInfo parent : info.provideParents(provider)) {
+            if (!parent.isInterface()) continue;
+
+            for (final MethodSignature method : visible(info, parent)) {
+                if (declared.contains(method) && !anchors.containsKey(method)) continue;
+
+                final int id = ids.get(new MemberKey(parent.getName(), method));
+                final Integer anchor = anchors.putIfAbsent(method, id);
+                if (anchor != null) families.union(anchor, id);
+            }
+        }
+    }
+
+    /**
+     * Gets the instance methods of the given parent that the given class
+     * could inherit.
+     */
+    private static List<MethodSignature> visible(final InheritanceProvider.ClassInfo info, final InheritanceProvider.ClassInfo parent) {
+        final List<MethodSignature> visible = new ArrayList<>();
+        for (final Map.Entry<MethodSignature, InheritanceType> method : parent.getMethods().entrySet()) {
+            if (method.getKey().getName().startsWith("<") || !method.getValue().canInherit(parent, info)) continue;
+            if (Modifier.isStatic(parent.getMethodAccess(method.getKey()))) continue;
+            visible.add(method.getKey());
+        }
+        return visible;
+    }
+
+    private final Map<MemberKey, Integer> ids;
+    private final List<MemberKey> members;
+    private final int[] family;
+
+    // Members grouped by family: the members of family f are
+    // byFamily[start[f]] until byFamily[start[f + 1]]
+    private final int[] byFamily;
+    private final int[] start;
+
+    private MethodFamilies(final Map<MemberKey, Integer> ids, final List<MemberKey> members, final int[] family) {
+        this.ids = ids;
+        this.members = members;
+        this.family = family;
+
+        this.start = new int[family.length + 1];
+        for (final int f : family) {
+            this.start[f + 1]++;
+        }
+        for (int i = 0; i < family.length; i++) {
+            this.start[i + 1] += this.start[i];
+        }
+        this.byFamily = new int[family.length];
+        final int[] next = this.start.clone();
+        for (int i = 0; i < family.length; i++) {
+            this.byFamily[next[this.family[i]]++] = i;
+        }
+    }
+
+    /**
+     * Gets the family of the given method.
+     *
+     * @param owner The class declaring the method
+     * @param method The method signature
+     * @return The id of the method's family, or {@link OptionalInt#empty()}
+     *         if the method isn't known
+     */
+    public OptionalInt getFamily(final String owner, final MethodSignature method) {
+        final Integer id = this.ids.get(new MemberKey(owner, method));
+        return id != null ? OptionalInt.of(this.family[id]) : OptionalInt.empty();
+    }
+
+    /**
+     * Gets the classes declaring a method of the given family.
+     *
+     * @param family The id of the family
+     * @return The classes declaring a method of the family
+     */
+    public List<String> getDeclaringClasses(final int family) {
+        final int from = this.start[family];
+        final int to = this.start[family + 1];
+        return new AbstractList<String>() {
+            @Override
+            public String get(final int index) {
+                if (index < 0 || index >= this.size()) throw new IndexOutOfBoundsException(String.valueOf(index));
+                return MethodFamilies.this.members.get(MethodFamilies.this.byFamily[from + index]).getOwner();
+            }
+
+            @Override
+            public int size() {
+                return to - from;
+            }
+        };
+    }
+
+    /**
+     * Gets the classes declaring a method of the same family as the given
+     * method.
+     *
+     * @param owner The class declaring the method
+     * @param method The method signature
+     * @return The classes declaring a method of the family, or an empty
+     *         list if the method isn't known
+     */
+    public List<String> getDeclaringClasses(final String owner, final MethodSignature method) {
+        final OptionalInt family = this.getFamily(owner, method);
+        return family.isPresent() ? this.getDeclaringClasses(family.getAsInt()) : Collections.emptyList();
+    }
+
+    /**
+     * A lock-free union-find, where the root of each set is its lowest
+     * element.
+     */
+    private static final class UnionFind {
+
+        private final AtomicIntegerArray parent;
+
+        UnionFind(final int size) {
+            this.parent = new AtomicIntegerArray(size);
+            for (int i = 0; i < size; i++) {
+                this.parent.set(i, i);
+            }
+        }
+
+        int find(int x) {
+            int p;
+            while ((p = this.parent.get(x)) != x) {
+                // Path halving - losing the race only leaves the path longer
+                final int grandparent = this.parent.get(p);
+                this.parent.compareAndSet(x, p, grandparent);
+                x = grandparent;
+            }
+            return x;
+        }
+
+        void union(final int a, final int b) {
+            while (true) {
+                final int rootA = this.find(a);
+                final int rootB = this.find(b);
+                if (rootA == rootB) return;
+
+                // Always link the higher root under the lower, so sets can't form a cycle
+                final int low = Math.min(rootA, rootB);
+                final int high = Math.max(rootA, rootB);
+                if (this.parent.compareAndSet(high, high, low)) return;
+            }
+        }
+
+        int[] flatten() {
+            final int[] roots = new int[this.parent.length()];
+            for (int i = 0; i < roots.length; i++) {
+                roots[i] = this.find(i);
+            }
+            return roots;
+        }
+
+    }
+
+}
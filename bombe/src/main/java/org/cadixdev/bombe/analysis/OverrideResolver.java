@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis;
+
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves the complete set of methods that a method overrides, or is
+ * overridden by, across the class hierarchy.
+ *
+ * <p>A method overrides another method if it could inherit it directly
+ * (see {@link InheritanceProvider.ClassInfo#overrides(MethodSignature, InheritanceProvider.ClassInfo)}),
+ * or if it overrides a method that in turn overrides it - so a
+ * package-private method can be overridden from another package through
+ * an intermediate public or protected method.</p>
+ *
+ * <p>Results are memoized per class and method, and are shared between
+ * queries. Methods overriding a given method are looked up using the
+ * {@link IndexingInheritanceProvider index}, so will only include the
+ * classes that have been indexed at the time of the first query.</p>
+ *
+ * @since 0.5.0
+ */
+public class OverrideResolver {
+
+    private final IndexingInheritanceProvider provider;
+    private final ConcurrentMap<MemberKey, Set<InheritanceProvider.ClassInfo>> overridden = new ConcurrentHashMap<>();
+    private final ConcurrentMap<MemberKey, Set<InheritanceProvider.ClassInfo>> overriding = new ConcurrentHashMap<>();
+
+    public OverrideResolver(final IndexingInheritanceProvider provider) {
+        this.provider = provider;
+    }
+
+    /**
+     * Gets the classes declaring a method that is overridden by the given
+     * method, recursively.
+     *
+     * @param klass The class declaring the method
+     * @param method The method signature
+     * @return The classes with overridden declarations of the method
+     */
+    public Set<InheritanceProvider.ClassInfo> getOverridden(final InheritanceProvider.ClassInfo klass, final MethodSignature method) {
+        return this.getOverridden(klass, method, new Walk());
+    }
+
+    private Set<InheritanceProvider.ClassInfo> getOverridden(final InheritanceProvider.ClassInfo klass, final MethodSignature method,
+            final Walk walk) {
+        final MemberKey key = new MemberKey(klass.getName(), method);
+        final Set<InheritanceProvider.ClassInfo> cached = this.overridden.get(key);
+        if (cached != null) return cached;
+
+        // Guard against cyclic hierarchies
+        if (!walk.visiting.add(klass.getName())) {
+            walk.cyclic = true;
+            return Collections.emptySet();
+        }
+
+        final Set<InheritanceProvider.ClassInfo> result = new HashSet<>();
+        for (final InheritanceProvider.ClassInfo parent : klass.provideParents(this.provider)) {
+            if (parent.equals(klass) || !klass.overrides(method, parent)) continue;
+
+            // The methods overridden by each overridden method are memoized
+            // in turn, so each is only resolved once across all queries
+            result.add(parent);
+            result.addAll(this.getOverridden(parent, method, walk));
+        }
+
+        walk.visiting.remove(klass.getName());
+        // A result computed while recovering from a cycle is missing the
+        // methods that were cut, so would differ depending on where the
+        // walk started
+        if (walk.cyclic) return Collections.unmodifiableSet(result);
+        return this.cache(this.overridden, key, result);
+    }
+
+    /**
+     * Gets the classes declaring a method that is overridden by the given
+     * method, recursively.
+     *
+     * @param klass The name of the class declaring the method
+     * @param method The method signature
+     * @return The classes with overridden declarations of the method
+     */
+    public Set<InheritanceProvider.ClassInfo> getOverridden(final String klass, final MethodSignature method) {
+        return this.provider.provide(klass)
+                .map(info -> this.getOverridden(info, method))
+                .orElse(Collections.emptySet());
+    }
+
+    /**
+     * Gets the indexed classes declaring a method that overrides the given
+     * method, recursively.
+     *
+     * @param klass The class declaring the method
+     * @param method The method signature
+     * @return The classes with overriding declarations of the method
+     */
+    public Set<InheritanceProvider.ClassInfo> getOverriding(final InheritanceProvider.ClassInfo klass, final MethodSignature method) {
+        final MemberKey key = new MemberKey(klass.getName(), method);
+        final Set<InheritanceProvider.ClassInfo> cached = this.overriding.get(key);
+        if (cached != null) return cached;
+
+        final Set<InheritanceProvider.ClassInfo> result = new HashSet<>();
+        final Walk walk = new Walk();
+        if (klass.getMethod(method) != InheritanceType.NONE) {
+            for (final String child : this.provider.getChildren(klass.getName())) {
+                final Optional<InheritanceProvider.ClassInfo> info = this.provider.provide(child);
+                if (info.isPresent() && this.getOverridden(info.get(), method, walk).contains(klass)) {
+                    result.add(info.get());
+                }
+            }
+        }
+
+        if (walk.cyclic) return Collections.unmodifiableSet(result);
+        return this.cache(this.overriding, key, result);
+    }
+
+    /**
+     * Gets the indexed classes declaring a method that overrides the given
+     * method, recursively.
+     *
+     * @param klass The name of the class declaring the method
+     * @param method The method signature
+     * @return The classes with overriding declarations of the method
+     */
+    public Set<InheritanceProvider.ClassInfo> getOverriding(final String klass, final MethodSignature method) {
+        return this.provider.provide(klass)
+                .map(info -> this.getOverriding(info, method))
+                .orElse(Collections.emptySet());
+    }
+
+    /**
+     * Gets the classes declaring a method that either overrides, or is
+     * overridden by, the given method.
+     *
+     * @param klass The class declaring the method
+     * @param method The method signature
+     * @return The classes with related declarations of the method
+     * @see #getOverridden(InheritanceProvider.ClassInfo, MethodSignature)
+     * @see #getOverriding(InheritanceProvider.ClassInfo, MethodSignature)
+     */
+    public Set<InheritanceProvider.ClassInfo> getOverrides(final InheritanceProvider.ClassInfo klass, final MethodSignature method) {
+        final Set<InheritanceProvider.ClassInfo> result = new HashSet<>(this.getOverridden(klass, method));
+        result.addAll(this.getOverriding(klass, method));
+        return Collections.unmodifiableSet(result);
+    }
+
+    private Set<InheritanceProvider.ClassInfo> cache(final ConcurrentMap<MemberKey, Set<InheritanceProvider.ClassInfo>> cache,
+            final MemberKey key, final Set<InheritanceProvider.ClassInfo> result) {
+        final Set<InheritanceProvider.ClassInfo> value = Collections.unmodifiableSet(result);
+        final Set<InheritanceProvider.ClassInfo> existing = cache.putIfAbsent(key, value);
+        return existing != null ? existing : value;
+    }
+
+    /**
+     * The state of a walk over the hierarchy of a class.
+     */
+    private static final class Walk {
+
+        private final Set<String> visiting = new HashSet<>();
+        private boolean cyclic;
+
+    }
+
+}
@@ -34,24 +34,45 @@ import org.cadixdev.bombe.type.signature.FieldSignature;
 import org.cadixdev.bombe.type.signature.MethodSignature;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A simple implementation of {@link InheritanceProvider} based on Java's
  * reflection API.
  *
+ * <p>The class information of each {@link Class} is computed once, and
+ * shared JVM-wide between all reflection inheritance providers. Each
+ * provider also remembers the classes it has found by name - classes that
+ * couldn't be found are looked up again, as the class loader may be able
+ * to load them later.</p>
+ *
  * @author Minecrell
  * @since 0.3.0
  */
 public class ReflectionInheritanceProvider implements InheritanceProvider {
 
+    private static final ClassValue<ClassInfo> CLASS_INFO = new ClassValue<ClassInfo>() {
+        @Override
+        protected ClassInfo computeValue(final Class<?> type) {
+            return new ReflectionClassInfo(type);
+        }
+    };
+
     private final ClassLoader classLoader;
+    private final ConcurrentMap<String, Class<?>> classes = new ConcurrentHashMap<>();
 
     public ReflectionInheritanceProvider(final ClassLoader classLoader) {
         this.classLoader = classLoader;
@@ -59,12 +80,7 @@ public class ReflectionInheritanceProvider implements InheritanceProvider {
 
     @Override
     public Optional<ClassInfo> provide(final String klass) {
-        try {
-            return Optional.of(this.provide(Class.forName(klass.replace('/', '.'), false, this.classLoader)));
-        }
-        catch (final ClassNotFoundException ex) {
-            return Optional.empty();
-        }
+        return this.findClass(klass).map(this::provide);
     }
 
     @Override
@@ -79,15 +95,71 @@ public class ReflectionInheritanceProvider implements InheritanceProvider {
     }
 
     public ClassInfo provide(final Class<?> clazz) {
-        return new ReflectionClassInfo(clazz).lazy();
+        return CLASS_INFO.get(clazz);
     }
 
+    private Optional<Class<?>> findClass(final String klass) {
+        final Class<?> cached = this.classes.get(klass);
+        if (cached != null) return Optional.of(cached);
+
+        final Class<?> clazz;
+        try {
+            clazz = Class.forName(klass.replace('/', '.'), false, this.classLoader);
+        }
+        catch (final ClassNotFoundException ex) {
+            return Optional.empty();
+        }
+
+        final Class<?> existing = this.classes.putIfAbsent(klass, clazz);
+        return Optional.of(existing != null ? existing : clazz);
+    }
+
+    /**
+     * A {@link ClassInfo} for a {@link Class}, with its header computed
+     * upfront and its members loaded once they are first needed. Members
+     * are loaded lazily, as reflecting them requires every class in their
+     * signatures to be present.
+     *
+     * <p>Access flags are those reported by reflection, which for nested
+     * classes are the flags of their inner class entry.</p>
+     */
     private static class ReflectionClassInfo extends ClassInfo.Abstract {
 
         private final Class<?> clazz;
+        private final DeferredClassInfo info;
 
         private ReflectionClassInfo(final Class<?> clazz) {
             this.clazz = clazz;
+
+            final Class<?> superClass = clazz.getSuperclass();
+            final Class<?>[] interfaces = clazz.getInterfaces();
+            final String[] interfaceNames = new String[interfaces.length];
+            for (int i = 0; i < interfaces.length; i++) {
+                interfaceNames[i] = getInternalName(interfaces[i]);
+            }
+
+            final String name = getInternalName(clazz);
+            final String superName = superClass != null ? getInternalName(superClass) : "";
+            final List<String> interfaceList = Arrays.asList(interfaceNames);
+            this.info = new DeferredClassInfo(name, clazz.getModifiers(), superName, interfaceList,
+                    () -> loadMembers(clazz, name, superName, interfaceList));
+        }
+
+        private static ClassInfo loadMembers(final Class<?> clazz, final String name, final String superName,
+                final List<String> interfaces) {
+            final Field[] declaredFields = clazz.getDeclaredFields();
+            final Map<FieldSignature, Integer> fields = new LinkedHashMap<>(declaredFields.length * 2);
+            for (final Field field : declaredFields) {
+                fields.put(FieldSignature.of(field), field.getModifiers());
+            }
+
+            final Method[] declaredMethods = clazz.getDeclaredMethods();
+            final Map<MethodSignature, Integer> methods = new HashMap<>(declaredMethods.length * 2);
+            for (final Method method : declaredMethods) {
+                methods.put(MethodSignature.of(method), method.getModifiers());
+            }
+
+            return new CompactClassInfo(name, clazz.getModifiers(), superName, interfaces, fields, methods);
         }
 
         private static String getInternalName(final Class<?> clazz) {
@@ -96,63 +168,96 @@ public class ReflectionInheritanceProvider implements InheritanceProvider {
 
         @Override
         public String getName() {
-            return getInternalName(this.clazz);
+            return this.info.getName();
         }
 
         @Override
         public boolean isInterface() {
-            return this.clazz.isInterface();
+            return this.info.isInterface();
         }
 
         @Override
         public String getSuperName() {
-            final Class<?> superClass = this.clazz.getSuperclass();
-            return superClass != null ? getInternalName(superClass) : "";
+            return this.info.getSuperName();
         }
 
         @Override
         public List<String> getInterfaces() {
-            return Collections.unmodifiableList(Arrays.stream(this.clazz.getInterfaces())
-                    .map(ReflectionClassInfo::getInternalName)
-                    .collect(Collectors.toList()));
+            return this.info.getInterfaces();
         }
 
         @Override
         public Map<FieldSignature, InheritanceType> getFields() {
-            return Collections.unmodifiableMap(Arrays.stream(this.clazz.getDeclaredFields())
-                    .collect(Collectors.toMap(FieldSignature::of, f -> InheritanceType.fromModifiers(f.getModifiers()))));
+            return this.info.getFields();
         }
 
         @Override
         public Map<String, InheritanceType> getFieldsByName() {
-            return Collections.unmodifiableMap(Arrays.stream(this.clazz.getDeclaredFields())
-                    .collect(Collectors.toMap(Field::getName, f -> InheritanceType.fromModifiers(f.getModifiers()))));
+            return this.info.getFieldsByName();
         }
 
         @Override
         public Map<MethodSignature, InheritanceType> getMethods() {
-            return Collections.unmodifiableMap(Arrays.stream(this.clazz.getDeclaredMethods())
-                    .collect(Collectors.toMap(MethodSignature::of, m -> InheritanceType.fromModifiers(m.getModifiers()))));
+            return this.info.getMethods();
         }
 
-        private void provideParent(final InheritanceProvider provider, final Class<?> parent, final Collection<ClassInfo> parents) {
-            if (parent == null) {
+        @Override
+        public InheritanceType getField(final FieldSignature field) {
+            return this.info.getField(field);
+        }
+
+        @Override
+        public InheritanceType getMethod(final MethodSignature method) {
+            return this.info.getMethod(method);
+        }
+
+        @Override
+        public int getAccess() {
+            return this.info.getAccess();
+        }
+
+        @Override
+        public int getFieldAccess(final FieldSignature field) {
+            return this.info.getFieldAccess(field);
+        }
+
+        @Override
+        public int getMethodAccess(final MethodSignature method) {
+            return this.info.getMethodAccess(method);
+        }
+
+        @Override
+        public void provideParents(final InheritanceProvider provider, final Collection<ClassInfo> parents) {
+            // The parents aren't cached, as this class info is shared between providers
+            final Set<Class<?>> visited = new HashSet<>();
+            final Deque<Class<?>> queue = new ArrayDeque<>();
+            queue.add(this.clazz);
+
+            while (!queue.isEmpty()) {
+                final Class<?> current = queue.poll();
+                this.provideParent(provider, current.getSuperclass(), visited, queue, parents);
+                for (final Class<?> iface : current.getInterfaces()) {
+                    this.provideParent(provider, iface, visited, queue, parents);
+                }
+            }
+        }
+
+        private void provideParent(final InheritanceProvider provider, final Class<?> parent, final Set<Class<?>> visited,
+                final Deque<Class<?>> queue, final Collection<ClassInfo> parents) {
+            if (parent == null || !visited.add(parent)) {
                 return;
             }
 
             final ClassInfo parentInfo = provider.provide(getInternalName(parent), parent).orElse(null);
             if (parentInfo != null) {
-                parentInfo.provideParents(provider, parents);
                 parents.add(parentInfo);
+                queue.add(parent);
             }
         }
 
         @Override
-        public void provideParents(final InheritanceProvider provider, final Collection<ClassInfo> parents) {
-            this.provideParent(provider, this.clazz.getSuperclass(), parents);
-            for (final Class<?> iface : this.clazz.getInterfaces()) {
-                this.provideParent(provider, iface, parents);
-            }
+        public ClassInfo lazy() {
+            return this; // Members are cached once loaded
         }
 
     }
@@ -31,9 +31,10 @@
 package org.cadixdev.bombe.analysis.asm;
 
 import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.bombe.jfr.ClassFetchEvent;
+import org.cadixdev.bombe.jfr.ClassParseEvent;
+import org.cadixdev.bombe.jfr.FlightRecorderSupport;
 import org.cadixdev.bombe.provider.ClassProvider;
-import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.Opcodes;
 
 import java.util.Optional;
 
@@ -46,40 +47,115 @@ import java.util.Optional;
  */
 public class ClassProviderInheritanceProvider implements InheritanceProvider {
 
-    private final int api;
     private final ClassProvider provider;
+    private final MemberLoading memberLoading;
 
     /**
      * Creates a new inheritance provider backed by a class provider.
      *
-     * @param api The ASM API version to use
      * @param provider The class provider
-     * @since 0.3.3
+     * @param memberLoading When the members of classes are loaded
+     * @since 0.5.0
      */
-    public ClassProviderInheritanceProvider(final int api, final ClassProvider provider) {
-        this.api = api;
+    public ClassProviderInheritanceProvider(final ClassProvider provider, final MemberLoading memberLoading) {
         this.provider = provider;
+        this.memberLoading = memberLoading;
     }
 
     /**
-     * Creates a new inheritance provider backed by a class provider, defaulting to
-     * {@link Opcodes#ASM7}.
+     * Creates a new inheritance provider backed by a class provider,
+     * loading members eagerly.
      *
      * @param provider The class provider
      */
     public ClassProviderInheritanceProvider(final ClassProvider provider) {
-        this(Opcodes.ASM7, provider);
+        this(provider, MemberLoading.EAGER);
+    }
+
+    /**
+     * Creates a new inheritance provider backed by a class provider,
+     * loading members eagerly.
+     *
+     * @param api The ASM API version to use
+     * @param provider The class provider
+     * @since 0.3.3
+     * @deprecated Classes are no longer read with ASM, so the API version
+     *             is unused - use {@link #ClassProviderInheritanceProvider(ClassProvider)}
+     */
+    @Deprecated
+    public ClassProviderInheritanceProvider(final int api, final ClassProvider provider) {
+        this(provider);
     }
 
     @Override
     public Optional<ClassInfo> provide(final String klass) {
+        if (FlightRecorderSupport.isAvailable()) return this.provideRecorded(klass);
+
         final byte[] classBytes = this.provider.get(klass);
         if (classBytes == null) return Optional.empty();
 
-        final ClassReader reader = new ClassReader(classBytes);
-        final InheritanceClassInfoVisitor classInfoVisitor = new InheritanceClassInfoVisitor(this.api);
-        reader.accept(classInfoVisitor, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
-        return Optional.of(classInfoVisitor.create());
+        return Optional.of(this.read(klass, classBytes));
+    }
+
+    private ClassInfo read(final String klass, final byte[] classBytes) {
+        final InheritanceClassInfoReader reader = new InheritanceClassInfoReader(classBytes);
+        switch (this.memberLoading) {
+            case RETAIN:
+                return reader.readHeader(reader::read);
+            case REFETCH:
+                return reader.readHeader(() -> {
+                    final byte[] bytes = this.provider.get(klass);
+                    return bytes != null ? new InheritanceClassInfoReader(bytes).read() : null;
+                });
+            default:
+                return reader.read();
+        }
+    }
+
+    private Optional<ClassInfo> provideRecorded(final String klass) {
+        final ClassFetchEvent fetch = new ClassFetchEvent();
+        fetch.begin();
+        final byte[] classBytes = this.provider.get(klass);
+        fetch.complete(klass, classBytes);
+        if (classBytes == null) return Optional.empty();
+
+        final ClassParseEvent parse = new ClassParseEvent();
+        parse.begin();
+        final ClassInfo info = this.read(klass, classBytes);
+        parse.complete(klass, classBytes.length);
+        return Optional.of(info);
+    }
+
+    /**
+     * When the members of the provided classes are loaded.
+     *
+     * @since 0.5.0
+     */
+    public enum MemberLoading {
+
+        /**
+         * Members are parsed along with the rest of the class.
+         */
+        EAGER,
+
+        /**
+         * Only the header of the class is parsed up front, with the bytes
+         * of the class retained so that its members can be parsed on
+         * demand.
+         */
+        RETAIN,
+
+        /**
+         * Only the header of the class is parsed up front, with the bytes
+         * of the class fetched again from the class provider when its
+         * members are needed. This uses the least memory, so long as the
+         * class provider doesn't itself retain classes. Should the class
+         * provider no longer have the class by then, accessing the members
+         * throws an {@link IllegalStateException}, and they are fetched
+         * again on the next access.
+         */
+        REFETCH
+
     }
 
 }
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis.asm;
+
+import org.cadixdev.bombe.analysis.CompactClassInfo;
+import org.cadixdev.bombe.analysis.DeferredClassInfo;
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.cadixdev.bombe.type.signature.FieldSignature;
+import org.cadixdev.bombe.type.signature.MethodSignature;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A minimal class file parser, reading only the structures needed to
+ * create an {@link InheritanceProvider.ClassInfo}: the access flags, super
+ * class and interfaces of the class, and the names, descriptors and access
+ * flags of its members.
+ *
+ * <p>Attributes are skipped by their length, and only the constant pool
+ * entries that are referenced by those structures are decoded.</p>
+ *
+ * @see <a href="https://docs.oracle.com/javase/specs/jvms/se11/html/jvms-4.html">JVMS 4</a>
+ */
+final class InheritanceClassInfoReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    // Constant pool tags
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private final ByteBuffer buffer;
+
+    /**
+     * The offsets of the contents of each constant pool entry, just after
+     * its tag.
+     */
+    private final int[] offsets;
+
+    /**
+     * The decoded {@code CONSTANT_Utf8} entries, populated as they are read.
+     */
+    private final String[] strings;
+
+    /**
+     * The offset of the {@code access_flags} item, just after the
+     * constant pool.
+     */
+    private final int header;
+
+    InheritanceClassInfoReader(final byte[] bytes) {
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    InheritanceClassInfoReader(final ByteBuffer buffer) {
+        this.buffer = buffer.slice();
+        if (this.buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a class file");
+        }
+
+        final int count = this.readUnsignedShort(8);
+        this.offsets = new int[count];
+        this.strings = new String[count];
+
+        int offset = 10;
+        for (int i = 1; i < count; i++) {
+            final int tag = this.buffer.get(offset) & 0xFF;
+            this.offsets[i] = offset + 1;
+
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    offset += 3 + this.readUnsignedShort(offset + 1);
+                    break;
+                case CONSTANT_CLASS:
+                case CONSTANT_STRING:
+                case CONSTANT_METHOD_TYPE:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    offset += 3;
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    offset += 4;
+                    break;
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                case CONSTANT_FIELDREF:
+                case CONSTANT_METHODREF:
+                case CONSTANT_INTERFACE_METHODREF:
+                case CONSTANT_NAME_AND_TYPE:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    offset += 5;
+                    break;
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    // 8-byte constants take up two entries
+                    offset += 9;
+                    i++;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown constant pool tag " + tag + " at offset " + offset);
+            }
+        }
+        this.header = offset;
+    }
+
+    /**
+     * Reads the class information from the class file.
+     *
+     * @return The class information
+     */
+    InheritanceProvider.ClassInfo read() {
+        final int access = this.readUnsignedShort(this.header);
+        final String name = this.readClass(this.header + 2);
+        final String superName = this.readClass(this.header + 4);
+        final List<String> interfaces = this.readInterfaces();
+
+        int offset = this.header + 8 + interfaces.size() * 2;
+        final int fieldCount = this.readUnsignedShort(offset);
+        final Map<FieldSignature, Integer> fields = new LinkedHashMap<>(fieldCount * 2);
+        offset += 2;
+        for (int i = 0; i < fieldCount; i++) {
+            fields.put(FieldSignature.of(this.readUtf8(offset + 2), this.readUtf8(offset + 4)), this.readUnsignedShort(offset));
+            offset = this.skipAttributes(offset + 6);
+        }
+
+        final int methodCount = this.readUnsignedShort(offset);
+        final Map<MethodSignature, Integer> methods = new HashMap<>(methodCount * 2);
+        offset += 2;
+        for (int i = 0; i < methodCount; i++) {
+            methods.put(MethodSignature.of(this.readUtf8(offset + 2), this.readUtf8(offset + 4)), this.readUnsignedShort(offset));
+            offset = this.skipAttributes(offset + 6);
+        }
+
+        return new CompactClassInfo(name, access, superName, interfaces, fields, methods);
+    }
+
+    /**
+     * Reads only the header of the class from the class file - its name,
+     * super class and interfaces - leaving its members to be loaded on
+     * demand.
+     *
+     * @param loader The loader of the class's members
+     * @return The class information
+     */
+    DeferredClassInfo readHeader(final Supplier<? extends InheritanceProvider.ClassInfo> loader) {
+        return new DeferredClassInfo(this.readClass(this.header + 2), this.readUnsignedShort(this.header),
+                this.readClass(this.header + 4), this.readInterfaces(), loader);
+    }
+
+    private List<String> readInterfaces() {
+        final int count = this.readUnsignedShort(this.header + 6);
+        final List<String> interfaces = new ArrayList<>(count);
+        for (int i = 0, offset = this.header + 8; i < count; i++, offset += 2) {
+            interfaces.add(this.readClass(offset));
+        }
+        return interfaces;
+    }
+
+    private int skipAttributes(int offset) {
+        final int count = this.readUnsignedShort(offset);
+        offset += 2;
+        for (int i = 0; i < count; i++) {
+            // attribute_name_index (u2), attribute_length (u4), info
+            offset += 6 + this.buffer.getInt(offset + 2);
+        }
+        return offset;
+    }
+
+    private int readUnsignedShort(final int offset) {
+        return this.buffer.getShort(offset) & 0xFFFF;
+    }
+
+    /**
+     * Reads the name of the {@code CONSTANT_Class} entry referenced by the
+     * index at the given offset.
+     *
+     * @param offset The offset of the constant pool index
+     * @return The class name, or {@code null} for the index {@code 0}
+     */
+    private String readClass(final int offset) {
+        final int index = this.readUnsignedShort(offset);
+        if (index == 0) return null;
+        return this.readUtf8(this.offsets[index]);
+    }
+
+    /**
+     * Reads the {@code CONSTANT_Utf8} entry referenced by the index at the
+     * given offset.
+     *
+     * @param offset The offset of the constant pool index
+     * @return The string
+     */
+    private String readUtf8(final int offset) {
+        final int index = this.readUnsignedShort(offset);
+        final String cached = this.strings[index];
+        if (cached != null) return cached;
+
+        final int start = this.offsets[index];
+        return this.strings[index] = this.decodeUtf8(start + 2, this.readUnsignedShort(start));
+    }
+
+    /**
+     * Decodes a string in the modified UTF-8 format used by class files.
+     *
+     * @param offset The offset of the first byte
+     * @param length The number of bytes
+     * @return The decoded string
+     * @see <a href="https://docs.oracle.com/javase/specs/jvms/se11/html/jvms-4.html#jvms-4.4.7">JVMS 4.4.7</a>
+     */
+    private String decodeUtf8(int offset, final int length) {
+        final int end = offset + length;
+        final char[] chars = new char[length];
+        int count = 0;
+
+        while (offset < end) {
+            final int b = this.buffer.get(offset++);
+            if ((b & 0x80) == 0) {
+                chars[count++] = (char) (b & 0x7F);
+            }
+            else if ((b & 0xE0) == 0xC0) {
+                chars[count++] = (char) (((b & 0x1F) << 6) + (this.buffer.get(offset++) & 0x3F));
+            }
+            else {
+                chars[count++] = (char) (((b & 0xF) << 12)
+                        + ((this.buffer.get(offset++) & 0x3F) << 6)
+                        + (this.buffer.get(offset++) & 0x3F));
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+}
@@ -30,8 +30,9 @@
 
 package org.cadixdev.bombe.analysis.asm;
 
+import org.cadixdev.bombe.analysis.CompactClassInfo;
+import org.cadixdev.bombe.analysis.InMemoryInheritanceProvider;
 import org.cadixdev.bombe.analysis.InheritanceProvider;
-import org.cadixdev.bombe.analysis.InheritanceType;
 import org.cadixdev.bombe.type.signature.FieldSignature;
 import org.cadixdev.bombe.type.signature.MethodSignature;
 import org.objectweb.asm.ClassVisitor;
@@ -42,49 +43,93 @@ import org.objectweb.asm.Opcodes;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-class InheritanceClassInfoVisitor extends ClassVisitor {
+/**
+ * A {@link ClassVisitor} that builds the {@link InheritanceProvider.ClassInfo}
+ * of the visited class, as a side effect of an existing visit chain, and
+ * registers it with an {@link InMemoryInheritanceProvider}.
+ *
+ * <p>This allows a single pass over a jar to feed both its transformation
+ * and inheritance analysis, without parsing classes a second time. All
+ * events are passed on to the delegate visitor, unchanged.</p>
+ *
+ * @since 0.5.0
+ */
+public class InheritanceClassInfoVisitor extends ClassVisitor {
+
+    private final InMemoryInheritanceProvider provider;
 
     private String name;
-    private boolean isInterface;
+    private int access;
     private String superName;
     private List<String> interfaces = Collections.emptyList();
 
-    private final Map<FieldSignature, InheritanceType> fields = new HashMap<>();
-    private final Map<String, InheritanceType> fieldsByName = new HashMap<>();
-    private final Map<MethodSignature, InheritanceType> methods = new HashMap<>();
+    private final Map<FieldSignature, Integer> fields = new LinkedHashMap<>();
+    private final Map<MethodSignature, Integer> methods = new HashMap<>();
 
-    InheritanceClassInfoVisitor(final int api) {
-        super(api);
+    /**
+     * Creates a new visitor, registering the visited class with the given
+     * provider.
+     *
+     * @param api The ASM API version to use
+     * @param classVisitor The visitor to delegate to, or {@code null}
+     * @param provider The provider to register the class with
+     */
+    public InheritanceClassInfoVisitor(final int api, final ClassVisitor classVisitor, final InMemoryInheritanceProvider provider) {
+        super(api, classVisitor);
+        this.provider = provider;
     }
 
-    InheritanceProvider.ClassInfo create() {
-        return new InheritanceProvider.ClassInfo.Impl(this.name, this.isInterface, this.superName, this.interfaces,
-                this.fields, this.fieldsByName, this.methods);
+    /**
+     * Creates a new visitor, registering the visited class with the given
+     * provider, defaulting to {@link Opcodes#ASM7}.
+     *
+     * @param classVisitor The visitor to delegate to, or {@code null}
+     * @param provider The provider to register the class with
+     */
+    public InheritanceClassInfoVisitor(final ClassVisitor classVisitor, final InMemoryInheritanceProvider provider) {
+        this(Opcodes.ASM7, classVisitor, provider);
+    }
+
+    /**
+     * Creates the class info of the visited class.
+     *
+     * @return The class info
+     */
+    public InheritanceProvider.ClassInfo create() {
+        return new CompactClassInfo(this.name, this.access, this.superName, this.interfaces,
+                this.fields, this.methods);
     }
 
     @Override
     public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
         this.name = name;
-        this.isInterface = (access & Opcodes.ACC_INTERFACE) != 0;
-        this.superName = superName;
-        this.interfaces = Arrays.asList(interfaces);
+        // ASM marks pseudo flags, such as deprecation, above the class file's 16 bits
+        this.access = access & 0xFFFF;
+        this.superName = superName != null ? superName : "";
+        this.interfaces = interfaces != null ? Arrays.asList(interfaces) : Collections.emptyList();
+        super.visit(version, access, name, signature, superName, interfaces);
     }
 
     @Override
     public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
-        InheritanceType type = InheritanceType.fromModifiers(access);
-        this.fields.put(FieldSignature.of(name, descriptor), type);
-        this.fieldsByName.put(name, type);
-        return null;
+        this.fields.put(FieldSignature.of(name, descriptor), access & 0xFFFF);
+        return super.visitField(access, name, descriptor, signature, value);
     }
 
     @Override
     public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
-        this.methods.put(MethodSignature.of(name, descriptor), InheritanceType.fromModifiers(access));
-        return null;
+        this.methods.put(MethodSignature.of(name, descriptor), access & 0xFFFF);
+        return super.visitMethod(access, name, descriptor, signature, exceptions);
+    }
+
+    @Override
+    public void visitEnd() {
+        this.provider.register(this.create());
+        super.visitEnd();
     }
 
 }
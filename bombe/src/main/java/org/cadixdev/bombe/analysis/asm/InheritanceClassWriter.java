@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis.asm;
+
+import org.cadixdev.bombe.analysis.CommonSuperClassResolver;
+import org.cadixdev.bombe.analysis.InheritanceProvider;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+
+/**
+ * An implementation of {@link ClassWriter} that computes common super
+ * classes from an {@link InheritanceProvider}, rather than by loading
+ * classes through a {@link ClassLoader}.
+ *
+ * <p>A {@link CommonSuperClassResolver} should be shared between writers,
+ * so that common super classes are computed once per job.</p>
+ *
+ * @since 0.5.0
+ */
+public class InheritanceClassWriter extends ClassWriter {
+
+    private final CommonSuperClassResolver resolver;
+
+    /**
+     * Creates a new class writer.
+     *
+     * @param flags The ASM writer flags
+     * @param resolver The resolver to compute common super classes with
+     * @see ClassWriter#ClassWriter(int)
+     */
+    public InheritanceClassWriter(final int flags, final CommonSuperClassResolver resolver) {
+        super(flags);
+        this.resolver = resolver;
+    }
+
+    /**
+     * Creates a new class writer, copying the constant pool of the
+     * given class reader.
+     *
+     * @param reader The class reader
+     * @param flags The ASM writer flags
+     * @param resolver The resolver to compute common super classes with
+     * @see ClassWriter#ClassWriter(ClassReader, int)
+     */
+    public InheritanceClassWriter(final ClassReader reader, final int flags, final CommonSuperClassResolver resolver) {
+        super(reader, flags);
+        this.resolver = resolver;
+    }
+
+    /**
+     * Creates a new class writer, with its own resolver.
+     *
+     * @param flags The ASM writer flags
+     * @param provider The inheritance provider
+     */
+    public InheritanceClassWriter(final int flags, final InheritanceProvider provider) {
+        this(flags, new CommonSuperClassResolver(provider));
+    }
+
+    @Override
+    protected String getCommonSuperClass(final String type1, final String type2) {
+        return this.resolver.getCommonSuperClass(type1, type2);
+    }
+
+}
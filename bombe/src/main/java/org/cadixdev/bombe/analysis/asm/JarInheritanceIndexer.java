@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.analysis.asm;
+
+import org.cadixdev.bombe.analysis.InMemoryInheritanceProvider;
+import org.cadixdev.bombe.util.ByteStreams;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Indexes all of the classes of a jar in a single pass, for when the
+ * whole jar will be needed anyway.
+ *
+ * <p>The jar is read sequentially, avoiding a random-access lookup per
+ * class, while the classes are parsed in parallel. Versioned entries of
+ * multi-release jars, and module descriptors, are not indexed.</p>
+ *
+ * @since 0.5.0
+ */
+public final class JarInheritanceIndexer {
+
+    private static final String CLASS_EXTENSION = ".class";
+
+    /**
+     * Indexes the classes of the given jar, parsing them with the common
+     * fork-join pool.
+     *
+     * @param jar The path to the jar
+     * @return An inheritance provider of the jar's classes
+     * @throws IOException If an I/O error occurs reading the jar
+     */
+    public static InMemoryInheritanceProvider index(final Path jar) throws IOException {
+        return index(jar, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Indexes the classes of the given jar, parsing them with the given
+     * executor.
+     *
+     * @param jar The path to the jar
+     * @param executor The executor to parse classes with
+     * @return An inheritance provider of the jar's classes
+     * @throws IOException If an I/O error occurs reading the jar
+     */
+    public static InMemoryInheritanceProvider index(final Path jar, final Executor executor) throws IOException {
+        try (final InputStream in = Files.newInputStream(jar)) {
+            return index(in, executor);
+        }
+    }
+
+    /**
+     * Indexes the classes of the jar read from the given stream, parsing
+     * them with the given executor. The stream is not closed.
+     *
+     * @param in The stream of the jar
+     * @param executor The executor to parse classes with
+     * @return An inheritance provider of the jar's classes
+     * @throws IOException If an I/O error occurs reading the jar
+     */
+    public static InMemoryInheritanceProvider index(final InputStream in, final Executor executor) throws IOException {
+        final InMemoryInheritanceProvider provider = new InMemoryInheritanceProvider();
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        final ZipInputStream zip = new ZipInputStream(new BufferedInputStream(in));
+        final byte[] buffer = new byte[8192];
+        for (ZipEntry entry; (entry = zip.getNextEntry()) != null; ) {
+            if (entry.isDirectory() || !isIndexed(entry.getName())) continue;
+
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream(entry.getSize() > 0 ? (int) entry.getSize() : 8192);
+            ByteStreams.copy(zip, baos, buffer);
+            final byte[] bytes = baos.toByteArray();
+
+            futures.add(CompletableFuture.runAsync(
+                    () -> provider.register(new InheritanceClassInfoReader(bytes).read()),
+                    executor
+            ));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        }
+        catch (final CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) throw (RuntimeException) ex.getCause();
+            if (ex.getCause() instanceof Error) throw (Error) ex.getCause();
+            throw ex;
+        }
+        return provider;
+    }
+
+    private static boolean isIndexed(final String name) {
+        return name.endsWith(CLASS_EXTENSION) &&
+                !name.startsWith("META-INF/") &&
+                !name.endsWith("module-info" + CLASS_EXTENSION);
+    }
+
+    private JarInheritanceIndexer() {
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.jfr;
+
+/**
+ * Guards the use of Bombe's Java Flight Recorder events.
+ *
+ * <p>The event classes extend {@code jdk.jfr.Event}, which isn't present
+ * on all Java 8 runtimes. Callers must check {@link #isAvailable()} before
+ * creating an event, so that the event classes are never loaded where JFR
+ * isn't available - this check is constant, and free once compiled.
+ * Where JFR is available but not recording, events are disabled by JFR
+ * itself.</p>
+ *
+ * @since 0.5.0
+ */
+public final class FlightRecorderSupport {
+
+    private static final boolean AVAILABLE = isPresent("jdk.jfr.Event");
+
+    private static boolean isPresent(final String klass) {
+        try {
+            Class.forName(klass, false, FlightRecorderSupport.class.getClassLoader());
+            return true;
+        }
+        catch (final ClassNotFoundException | LinkageError ignored) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns whether Java Flight Recorder events can be used.
+     *
+     * @return {@code true} if JFR events are available
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    private FlightRecorderSupport() {
+    }
+
+}
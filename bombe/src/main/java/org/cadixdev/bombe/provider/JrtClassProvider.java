@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.provider;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An implementation of {@link ClassProvider} backed by the {@code jrt:/}
+ * file system of a Java runtime image, either that of the running JDK or
+ * of another JDK installation.
+ *
+ * <p>Classes are read straight from the runtime image, so they aren't
+ * loaded or linked by the JVM. When paired with a
+ * {@link org.cadixdev.bombe.analysis.asm.ClassProviderInheritanceProvider},
+ * the inheritance of JDK classes can be resolved without filling metaspace,
+ * and for a different version of the JDK than the one running.</p>
+ *
+ * <p>The module containing each package is looked up lazily, as classes
+ * in the package are first requested. Runtime images are only available
+ * with Java 9 and above.</p>
+ *
+ * @since 0.5.0
+ */
+public class JrtClassProvider implements ClassProvider, Closeable {
+
+    private static final URI JRT = URI.create("jrt:/");
+
+    private final FileSystem fs;
+    private final boolean owned;
+    private final ConcurrentMap<String, Optional<Path>> modules = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a class provider for the runtime image of the running JDK.
+     *
+     * @throws java.nio.file.ProviderNotFoundException If the running JDK has no
+     *         runtime image (Java 8 and below)
+     */
+    public JrtClassProvider() {
+        this(FileSystems.getFileSystem(JRT), false);
+    }
+
+    /**
+     * Creates a class provider for the runtime image of the JDK installed
+     * at the given location.
+     *
+     * @param javaHome The home directory of the JDK
+     * @throws IOException If the runtime image couldn't be opened
+     */
+    public JrtClassProvider(final Path javaHome) throws IOException {
+        this(FileSystems.newFileSystem(JRT, Collections.singletonMap("java.home", javaHome.toString())), true);
+    }
+
+    private JrtClassProvider(final FileSystem fs, final boolean owned) {
+        this.fs = fs;
+        this.owned = owned;
+    }
+
+    @Override
+    public byte[] get(final String klass) {
+        final int packageIndex = klass.lastIndexOf('/');
+        if (packageIndex < 0) return null; // Runtime images have no classes in the unnamed package
+
+        final Optional<Path> module = this.getModule(klass.substring(0, packageIndex));
+        if (!module.isPresent()) return null;
+
+        try {
+            return Files.readAllBytes(module.get().resolve(klass + ".class"));
+        }
+        catch (final IOException ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the root directory of the module containing the given package.
+     *
+     * @param pkg The package name
+     * @return The module root, or {@link Optional#empty()} if no module
+     *         contains the package
+     */
+    private Optional<Path> getModule(final String pkg) {
+        final Optional<Path> cached = this.modules.get(pkg);
+        if (cached != null) return cached;
+
+        // The runtime image links each package to the modules containing it,
+        // as /packages/<package>/<module>
+        Optional<Path> module = Optional.empty();
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(this.fs.getPath("/packages", pkg.replace('/', '.')))) {
+            final Iterator<Path> it = stream.iterator();
+            if (it.hasNext()) {
+                module = Optional.of(this.fs.getPath("/modules", it.next().getFileName().toString()));
+            }
+        }
+        catch (final NoSuchFileException ignored) {
+            // No module contains the package
+        }
+        catch (final IOException ignored) {
+            return Optional.empty();
+        }
+
+        final Optional<Path> existing = this.modules.putIfAbsent(pkg, module);
+        return existing != null ? existing : module;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The file system of the running JDK can't be closed
+        if (this.owned) {
+            this.fs.close();
+        }
+    }
+
+}
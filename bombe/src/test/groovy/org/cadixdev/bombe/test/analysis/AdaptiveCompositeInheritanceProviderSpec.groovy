@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.test.analysis
+
+import org.cadixdev.bombe.analysis.AdaptiveCompositeInheritanceProvider
+import org.cadixdev.bombe.analysis.InheritanceProvider
+import spock.lang.Specification
+
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.info
+
+/**
+ * Tests for {@link AdaptiveCompositeInheritanceProvider}.
+ */
+class AdaptiveCompositeInheritanceProviderSpec extends Specification {
+
+    private final List<String> projectRequests = []
+    private final List<String> libraryRequests = []
+
+    private final InheritanceProvider project = { String klass ->
+        this.projectRequests << klass
+        klass.startsWith('project/') || klass == 'shared/Patched' ? Optional.of(info(klass, 'project')) : Optional.empty()
+    } as InheritanceProvider
+    private final InheritanceProvider library = { String klass ->
+        this.libraryRequests << klass
+        klass.startsWith('shared/') ? Optional.of(info(klass, 'library')) : Optional.empty()
+    } as InheritanceProvider
+
+    def "respects the installation order"() {
+        given:
+        def provider = new AdaptiveCompositeInheritanceProvider([this.project, this.library])
+
+        expect:
+        provider.provide('shared/Other').get().superName == 'library'
+        provider.provide('shared/Patched').get().superName == 'project'
+        provider.provideAsync('shared/Patched').join().get().superName == 'project'
+        !provider.provide('missing/Class').present
+    }
+
+    def "caches misses"() {
+        given:
+        def provider = new AdaptiveCompositeInheritanceProvider([this.project, this.library])
+
+        when:
+        3.times { provider.provide('shared/Other') }
+
+        then:
+        this.projectRequests.count('shared/Other') == 1
+        this.libraryRequests.count('shared/Other') == 3
+
+        when:
+        provider.clearMisses()
+        provider.provide('shared/Other')
+
+        then:
+        this.projectRequests.count('shared/Other') == 2
+    }
+
+    def "bounds the cached misses"() {
+        given:
+        def provider = new AdaptiveCompositeInheritanceProvider([this.project, this.library])
+
+        when:
+        provider.provide('missing/First')
+        AdaptiveCompositeInheritanceProvider.MAX_MISSES.times { provider.provide("missing/Class$it") }
+        provider.provide('missing/First')
+
+        then:
+        this.projectRequests.count('missing/First') == 2
+    }
+
+    def "routes requests by package when reordering"() {
+        given:
+        def provider = new AdaptiveCompositeInheritanceProvider([this.project, this.library], true)
+
+        when:
+        provider.provide('shared/First')
+        provider.provide('shared/Second')
+
+        then:
+        this.projectRequests == ['shared/First']
+        this.libraryRequests == ['shared/First', 'shared/Second']
+    }
+
+    def "reorders providers by their hits"() {
+        given:
+        def provider = new AdaptiveCompositeInheritanceProvider([this.project, this.library], true)
+
+        when:
+        // Each class is in its own package, so routes don't apply
+        2048.times { provider.provide("shared/p$it/Class") }
+
+        then:
+        this.libraryRequests.size() == 2048
+        this.projectRequests.size() < 1024
+        !this.projectRequests.contains('shared/p2047/Class')
+    }
+
+}
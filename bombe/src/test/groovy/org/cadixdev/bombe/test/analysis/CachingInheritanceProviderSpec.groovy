@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.test.analysis
+
+import org.cadixdev.bombe.analysis.CachingInheritanceProvider
+import org.cadixdev.bombe.analysis.InheritanceProvider
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.info
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.providerOf
+
+/**
+ * Tests for {@link CachingInheritanceProvider}.
+ */
+class CachingInheritanceProviderSpec extends Specification {
+
+    def "invalidates classes and their dependents"() {
+        given:
+        def classes = [
+                'java/lang/Object': info('java/lang/Object', ''),
+                'Iface'           : info('Iface', '', [], true),
+                'Base'            : info('Base', 'java/lang/Object', ['Iface']),
+                'Child'           : info('Child', 'Base'),
+                'Other'           : info('Other', 'java/lang/Object'),
+        ]
+        def requests = []
+        def provider = new CachingInheritanceProvider({ String klass ->
+            requests << klass
+            Optional.ofNullable(classes[klass])
+        } as InheritanceProvider)
+        classes.keySet().each { provider.provide(it) }
+        provider.provide('New')
+        requests.clear()
+
+        when:
+        classes['New'] = info('New', 'java/lang/Object')
+        classes['Base'] = info('Base', 'java/lang/Object')
+
+        then:
+        provider.invalidate('Iface') == ['Iface', 'Base', 'Child'] as Set
+        provider.invalidate('New') == ['New'] as Set
+
+        when:
+        classes.keySet().each { provider.provide(it) }
+
+        then:
+        requests as Set == ['Iface', 'Base', 'Child', 'New'] as Set
+        provider.provide('New').present
+        provider.invalidate('Iface') == ['Iface'] as Set // Base no longer implements Iface
+    }
+
+    def "drops parents cached for shared classes"() {
+        given:
+        // The same instances are provided every time, as by reflection
+        def classes = [
+                'java/lang/Object': info('java/lang/Object', ''),
+                'Base'            : info('Base', 'java/lang/Object'),
+                'Child'           : info('Child', 'Base'),
+                'Other'           : info('Other', 'java/lang/Object'),
+        ]
+        def provider = new CachingInheritanceProvider(providerOf(classes))
+        provider.provide('Child').get().provideParents(provider)
+
+        when:
+        classes['Base'] = info('Base', 'Other')
+        provider.invalidate('Base')
+
+        then:
+        provider.provide('Child').get().provideParents(provider)*.name as Set == ['Base', 'Other', 'java/lang/Object'] as Set
+        provider.provide('Child').get().hasParent('Other', provider)
+    }
+
+    def "doesn't cache requests in flight during invalidation"() {
+        given:
+        int requests = 0
+        def future = new CompletableFuture<Optional<InheritanceProvider.ClassInfo>>()
+        def provider = new CachingInheritanceProvider(new InheritanceProvider() {
+            @Override
+            Optional<InheritanceProvider.ClassInfo> provide(final String klass) {
+                requests++
+                Optional.of(info(klass, 'java/lang/Object'))
+            }
+
+            @Override
+            CompletableFuture<Optional<InheritanceProvider.ClassInfo>> provideAsync(final String klass) {
+                requests++
+                future
+            }
+        })
+
+        when:
+        def result = provider.provideAsync('Stale')
+        provider.invalidate('Stale')
+        future.complete(Optional.of(info('Stale', 'Old')))
+
+        then:
+        result.join().get().superName == 'Old'
+        provider.provide('Stale').get().superName == 'java/lang/Object'
+        requests == 2
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.test.analysis
+
+import org.cadixdev.bombe.analysis.AsyncInheritanceProvider
+import org.cadixdev.bombe.analysis.CachingInheritanceProvider
+import org.cadixdev.bombe.analysis.InheritanceProvider
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.info
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.providerOf
+
+/**
+ * Tests for the parent traversal of {@link InheritanceProvider.ClassInfo}.
+ */
+class ClassInfoSpec extends Specification {
+
+    private static final Map<String, InheritanceProvider.ClassInfo> CLASSES = [
+            'java/lang/Object': info('java/lang/Object', ''),
+            'Top'             : info('Top', '', [], true),
+            'Left'            : info('Left', '', ['Top'], true),
+            'Right'           : info('Right', '', ['Top'], true),
+            'Diamond'         : info('Diamond', 'java/lang/Object', ['Left', 'Right']),
+            'CycleA'          : info('CycleA', 'CycleB'),
+            'CycleB'          : info('CycleB', 'CycleA'),
+    ]
+
+    private static final InheritanceProvider PROVIDER = providerOf(CLASSES)
+
+    def "provides each parent once"() {
+        given:
+        def parents = []
+        CLASSES['Diamond'].provideParents(PROVIDER, parents)
+
+        expect:
+        parents*.name.sort() == ['Left', 'Right', 'Top', 'java/lang/Object']
+    }
+
+    def "tolerates cyclic hierarchies"() {
+        expect:
+        CLASSES['CycleA'].provideParents(PROVIDER)*.name == ['CycleB']
+        CLASSES['CycleA'].hasParent('CycleB', PROVIDER)
+        !CLASSES['CycleA'].hasParent('java/lang/Object', PROVIDER)
+    }
+
+    def "finds parents"(final String klass, final String parent, final boolean expected) {
+        expect:
+        CLASSES[klass].hasParent(parent, PROVIDER) == expected
+        CLASSES[klass].hasParent(CLASSES[parent], PROVIDER) == expected
+
+        where:
+        klass     | parent             | expected
+        'Diamond' | 'Top'              | true
+        'Diamond' | 'java/lang/Object' | true
+        'Left'    | 'Right'            | false
+        'Top'     | 'Diamond'          | false
+    }
+
+    def "provides all classes and their parents"() {
+        expect:
+        PROVIDER.provideAll(['Diamond', 'CycleA', 'Missing']).keySet() ==
+                ['Diamond', 'java/lang/Object', 'Left', 'Right', 'Top', 'CycleA', 'CycleB'] as Set
+    }
+
+    def "provides parents asynchronously"() {
+        given:
+        def provider = new CachingInheritanceProvider(new AsyncInheritanceProvider(PROVIDER))
+
+        expect:
+        CLASSES['Diamond'].provideParentsAsync(provider).get()*.name as Set == ['java/lang/Object', 'Left', 'Right', 'Top'] as Set
+        CLASSES['CycleA'].provideParentsAsync(provider).get()*.name as Set == ['CycleB'] as Set
+    }
+
+    def "shares concurrent asynchronous requests"() {
+        given:
+        def requests = 0
+        def future = new CompletableFuture<Optional<InheritanceProvider.ClassInfo>>()
+        def provider = new CachingInheritanceProvider(new InheritanceProvider() {
+            @Override
+            Optional<InheritanceProvider.ClassInfo> provide(final String klass) {
+                throw new UnsupportedOperationException()
+            }
+
+            @Override
+            CompletableFuture<Optional<InheritanceProvider.ClassInfo>> provideAsync(final String klass) {
+                requests++
+                return future
+            }
+        })
+
+        when:
+        def first = provider.provideAsync('Top')
+        def second = provider.provideAsync('Top')
+        future.complete(Optional.of(CLASSES['Top']))
+
+        then:
+        requests == 1
+        first.get().get().name == 'Top'
+        second.get().get().name == 'Top'
+        provider.provide('Top').get().name == 'Top'
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.test.analysis
+
+import org.cadixdev.bombe.analysis.DeferredClassInfo
+import org.cadixdev.bombe.analysis.InheritanceType
+import org.cadixdev.bombe.analysis.asm.ClassProviderInheritanceProvider
+import org.cadixdev.bombe.provider.ClassProvider
+import org.cadixdev.bombe.provider.JrtClassProvider
+import org.cadixdev.bombe.type.signature.FieldSignature
+import org.cadixdev.bombe.type.signature.MethodSignature
+import org.objectweb.asm.ClassWriter
+import org.objectweb.asm.Opcodes
+import spock.lang.Requires
+import spock.lang.Specification
+
+/**
+ * Tests for {@link ClassProviderInheritanceProvider}.
+ */
+class ClassProviderInheritanceProviderSpec extends Specification {
+
+    private static final ClassProvider CLASSES = ClassProvider.of(ClassProviderInheritanceProviderSpec.classLoader)
+
+    def "reads class information"(final String klass) {
+        given:
+        def node = CLASSES.getAsNode(klass)
+        def info = new ClassProviderInheritanceProvider(CLASSES).provide(klass).get()
+
+        expect:
+        info.name == node.name
+        info.interface == ((node.access & Opcodes.ACC_INTERFACE) != 0)
+        info.access == (node.access & 0xFFFF)
+        info.superName == (node.superName ?: '')
+        info.interfaces == node.interfaces
+        info.fields == node.fields.collectEntries {
+            [(FieldSignature.of(it.name, it.desc)): InheritanceType.fromModifiers(it.access)]
+        }
+        info.fieldsByName == node.fields.collectEntries { [(it.name): InheritanceType.fromModifiers(it.access)] }
+        info.methods == node.methods.collectEntries {
+            [(MethodSignature.of(it.name, it.desc)): InheritanceType.fromModifiers(it.access)]
+        }
+        node.fields.every { info.getFieldAccess(FieldSignature.of(it.name, it.desc)) == (it.access & 0xFFFF) }
+        node.methods.every { info.getMethodAccess(MethodSignature.of(it.name, it.desc)) == (it.access & 0xFFFF) }
+        info.getMethodAccess(MethodSignature.of('missing()V')) == -1
+
+        where:
+        klass                                                  | _
+        'java/lang/Object'                                     | _
+        'java/lang/String'                                     | _
+        'java/util/ArrayList'                                  | _
+        'java/util/Map'                                        | _
+        'org/cadixdev/bombe/test/analysis/ClassInfoSpec'       | _
+    }
+
+    @Requires({ jvm.java9Compatible })
+    def "reads classes from the runtime image"() {
+        given:
+        def provider = new ClassProviderInheritanceProvider(new JrtClassProvider())
+
+        expect:
+        provider.provide('java/util/ArrayList').get().superName == 'java/util/AbstractList'
+        provider.provide('java/sql/Connection').get().interface
+        !provider.provide('java/util/Missing').present
+        !provider.provide('pkg/Missing').present
+    }
+
+    def "reads modified UTF-8"() {
+        given:
+        def writer = new ClassWriter(0)
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, 'pkg/Ünïcödé\u0000€', null, 'java/lang/Object', null)
+        writer.visitField(Opcodes.ACC_PRIVATE, 'välue', 'J', null, 42L).visitEnd()
+        writer.visitEnd()
+        def bytes = writer.toByteArray()
+
+        def info = new ClassProviderInheritanceProvider({ bytes } as ClassProvider).provide('a').get()
+
+        expect:
+        info.name == 'pkg/Ünïcödé\u0000€'
+        info.fieldsByName == ['välue': InheritanceType.NONE]
+    }
+
+    def "defers loading members"(final ClassProviderInheritanceProvider.MemberLoading memberLoading, final int fetches) {
+        given:
+        int requests = 0
+        def classes = { String klass ->
+            if (klass == 'java/util/ArrayList') requests++
+            CLASSES.get(klass)
+        } as ClassProvider
+        def provider = new ClassProviderInheritanceProvider(classes, memberLoading)
+        def info = provider.provide('java/util/ArrayList').get() as DeferredClassInfo
+        def eager = new ClassProviderInheritanceProvider(CLASSES).provide('java/util/ArrayList').get()
+
+        expect:
+        info.superName == eager.superName
+        info.interfaces == eager.interfaces
+        info.hasParent('java/util/Collection', provider)
+        !info.loaded
+        info.methods == eager.methods
+        info.fields == eager.fields
+        info.loaded
+        requests == fetches
+
+        where:
+        memberLoading                                                | fetches
+        ClassProviderInheritanceProvider.MemberLoading.RETAIN        | 1
+        ClassProviderInheritanceProvider.MemberLoading.REFETCH       | 2
+    }
+
+    def "fails to load members of classes gone when refetched"() {
+        given:
+        boolean gone = false
+        def classes = { String klass -> gone ? null : CLASSES.get(klass) } as ClassProvider
+        def provider = new ClassProviderInheritanceProvider(classes, ClassProviderInheritanceProvider.MemberLoading.REFETCH)
+        def info = provider.provide('java/util/ArrayList').get() as DeferredClassInfo
+
+        when:
+        gone = true
+        info.methods
+
+        then:
+        final IllegalStateException ex = thrown()
+        ex.message.contains('java/util/ArrayList')
+        info.superName == 'java/util/AbstractList'
+        !info.loaded
+
+        when:
+        gone = false
+
+        then:
+        info.getMethod(MethodSignature.of('size()I')) == InheritanceType.PUBLIC
+        info.loaded
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.test.analysis
+
+import org.cadixdev.bombe.analysis.CommonSuperClassResolver
+import org.cadixdev.bombe.analysis.InheritanceProvider
+import org.cadixdev.bombe.analysis.asm.InheritanceClassWriter
+import spock.lang.Specification
+
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.info
+
+/**
+ * Tests for {@link CommonSuperClassResolver} and {@link InheritanceClassWriter}.
+ */
+class CommonSuperClassResolverSpec extends Specification {
+
+    private static final Map<String, InheritanceProvider.ClassInfo> CLASSES = [
+            'java/lang/Object': info('java/lang/Object', ''),
+            'a/I'             : info('a/I', 'java/lang/Object', [], true),
+            'a/A'             : info('a/A', 'java/lang/Object'),
+            'a/B'             : info('a/B', 'a/A', ['a/I']),
+            'a/C'             : info('a/C', 'a/B'),
+            'a/D'             : info('a/D', 'a/A'),
+            'a/E'             : info('a/E', 'java/lang/Object', ['a/I']),
+    ]
+
+    private int requests = 0
+    private final InheritanceProvider provider = { String klass ->
+        this.requests++
+        Optional.ofNullable(CLASSES[klass])
+    } as InheritanceProvider
+    private final CommonSuperClassResolver resolver = new CommonSuperClassResolver(this.provider)
+
+    def "computes common super classes"(final String type1, final String type2, final String expected) {
+        expect:
+        this.resolver.getCommonSuperClass(type1, type2) == expected
+        this.resolver.getCommonSuperClass(type2, type1) == expected
+
+        where:
+        type1 | type2 | expected
+        'a/A' | 'a/A' | 'a/A'
+        'a/C' | 'a/D' | 'a/A'
+        'a/C' | 'a/B' | 'a/B'
+        'a/C' | 'a/I' | 'a/I'
+        'a/E' | 'a/C' | 'java/lang/Object'
+        'a/D' | 'a/I' | 'java/lang/Object'
+    }
+
+    def "memoizes common super classes"() {
+        given:
+        this.resolver.getCommonSuperClass('a/C', 'a/D')
+        final int requests = this.requests
+
+        when:
+        this.resolver.getCommonSuperClass('a/D', 'a/C')
+
+        then:
+        this.requests == requests
+    }
+
+    def "throws for unknown classes"() {
+        when:
+        this.resolver.getCommonSuperClass('a/A', 'b/Z')
+
+        then:
+        thrown(TypeNotPresentException)
+    }
+
+    def "class writer uses the resolver"() {
+        given:
+        final InheritanceClassWriter writer = new InheritanceClassWriter(0, this.resolver)
+
+        expect:
+        writer.getCommonSuperClass('a/C', 'a/D') == 'a/A'
+    }
+
+}
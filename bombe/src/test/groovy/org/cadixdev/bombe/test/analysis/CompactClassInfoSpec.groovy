@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.test.analysis
+
+import org.cadixdev.bombe.analysis.CompactClassInfo
+import org.cadixdev.bombe.analysis.InheritanceProvider
+import org.cadixdev.bombe.analysis.InheritanceType
+import org.cadixdev.bombe.type.signature.FieldSignature
+import org.cadixdev.bombe.type.signature.MethodSignature
+import spock.lang.Specification
+
+/**
+ * Tests for {@link CompactClassInfo}.
+ */
+class CompactClassInfoSpec extends Specification {
+
+    private static final Map<FieldSignature, InheritanceType> FIELDS = [
+            (FieldSignature.of('a', 'I'))                 : InheritanceType.PUBLIC,
+            (FieldSignature.of('a', 'Ljava/lang/String;')): InheritanceType.PUBLIC,
+            (FieldSignature.of('b', 'J'))                 : InheritanceType.NONE,
+    ]
+    private static final Map<MethodSignature, InheritanceType> METHODS = [
+            (MethodSignature.of('run()V'))                      : InheritanceType.PROTECTED,
+            (MethodSignature.of('run(I)V'))                     : InheritanceType.PACKAGE_PRIVATE,
+            (MethodSignature.of('<init>()V'))                   : InheritanceType.PUBLIC,
+            (MethodSignature.of('toString()Ljava/lang/String;')): InheritanceType.PUBLIC,
+    ]
+
+    def "provides the same information as Impl"() {
+        given:
+        def impl = new InheritanceProvider.ClassInfo.Impl('pkg/Test', false, 'java/lang/Object', ['java/lang/Runnable'],
+                FIELDS, ['a': InheritanceType.PUBLIC, 'b': InheritanceType.NONE], METHODS)
+        def compact = CompactClassInfo.of(impl)
+
+        expect:
+        compact == impl
+        compact.name == impl.name
+        compact.superName == impl.superName
+        compact.interfaces == impl.interfaces
+        compact.fields == impl.fields
+        compact.fieldsByName == impl.fieldsByName
+        compact.methods == impl.methods
+        compact.methods.size() == 4
+    }
+
+    def "looks up members"() {
+        given:
+        def compact = new CompactClassInfo('pkg/Test', false, null, [], FIELDS, METHODS)
+
+        expect:
+        compact.superName == ''
+        compact.getMethod(MethodSignature.of('run(I)V')) == InheritanceType.PACKAGE_PRIVATE
+        compact.getMethod(MethodSignature.of('run(J)V')) == InheritanceType.NONE
+        compact.methods[MethodSignature.of('run()V')] == InheritanceType.PROTECTED
+        compact.getField(FieldSignature.of('a', 'I')) == InheritanceType.PUBLIC
+        compact.getField(new FieldSignature('b')) == InheritanceType.NONE
+        !compact.fields.containsKey(FieldSignature.of('b', 'I'))
+        compact.fieldsByName.containsKey('b')
+        !compact.fieldsByName.containsKey('c')
+    }
+
+    def "uses the last field declared with a name"() {
+        given:
+        final Map<FieldSignature, InheritanceType> fields = new LinkedHashMap<>()
+        fields[FieldSignature.of('a', 'I')] = InheritanceType.PUBLIC
+        fields[new FieldSignature('b')] = InheritanceType.NONE
+        fields[FieldSignature.of('a', 'Ljava/lang/String;')] = InheritanceType.NONE
+        final Map<String, InheritanceType> fieldsByName = [:]
+        fields.each { signature, type -> fieldsByName[signature.name] = type }
+        def impl = new InheritanceProvider.ClassInfo.Impl('pkg/Test', false, null, [], fields, fieldsByName, [:])
+        def compact = new CompactClassInfo('pkg/Test', false, null, [], fields, [:])
+
+        expect:
+        compact.fieldsByName == impl.fieldsByName
+        compact.fieldsByName['a'] == InheritanceType.NONE
+        compact.fieldsByName.size() == 2
+        compact.fieldsByName.entrySet().size() == 2
+        CompactClassInfo.of(impl).fieldsByName == impl.fieldsByName
+    }
+
+}
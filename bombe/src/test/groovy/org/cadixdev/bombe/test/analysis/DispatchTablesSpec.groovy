@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.test.analysis
+
+import org.cadixdev.bombe.analysis.CompactClassInfo
+import org.cadixdev.bombe.analysis.DispatchTables
+import org.cadixdev.bombe.analysis.InheritanceProvider
+import org.cadixdev.bombe.analysis.InheritanceType
+import org.cadixdev.bombe.type.signature.FieldSignature
+import org.cadixdev.bombe.type.signature.MethodSignature
+import org.objectweb.asm.Opcodes
+import spock.lang.Specification
+
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.info
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.providerOf
+
+/**
+ * Tests for {@link DispatchTables}.
+ */
+class DispatchTablesSpec extends Specification {
+
+    private static final MethodSignature RUN = MethodSignature.of('run()V')
+    private static final MethodSignature STOP = MethodSignature.of('stop()V')
+    private static final MethodSignature HIDDEN = MethodSignature.of('hidden()V')
+
+    private static final Map<String, InheritanceProvider.ClassInfo> CLASSES = [
+            'java/lang/Object': info('java/lang/Object', '', [], false, [:]),
+            'a/I'             : info('a/I', 'java/lang/Object', [], true, [(RUN): InheritanceType.PUBLIC]),
+            'a/J'             : info('a/J', 'java/lang/Object', ['a/I'], true, [(RUN): InheritanceType.PUBLIC]),
+            'a/A'             : info('a/A', 'java/lang/Object', ['a/I'], false, [(STOP): InheritanceType.PUBLIC]),
+            'a/B'             : info('a/B', 'a/A', ['a/J'], false, [(HIDDEN): InheritanceType.NONE]),
+            'a/C'             : info('a/C', 'a/B', [], false, [(RUN): InheritanceType.PUBLIC]),
+            'a/D'             : info('a/D', 'a/C', [], false, [:]),
+            'p/A'             : info('p/A', 'java/lang/Object', [], false, [(RUN): InheritanceType.PACKAGE_PRIVATE]),
+            'q/B'             : info('q/B', 'p/A', [], false, [(RUN): InheritanceType.PUBLIC]),
+            'p/C'             : info('p/C', 'q/B', [], false, [(RUN): InheritanceType.PUBLIC]),
+            'x/A'             : info('x/A', 'x/B', [], false, [(RUN): InheritanceType.PUBLIC]),
+            'x/B'             : info('x/B', 'x/A', [], false, [(STOP): InheritanceType.PUBLIC]),
+            'd/I'             : compact('d/I', [], Opcodes.ACC_INTERFACE | Opcodes.ACC_ABSTRACT,
+                    Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT),
+            'd/J'             : compact('d/J', [], Opcodes.ACC_INTERFACE | Opcodes.ACC_ABSTRACT, Opcodes.ACC_PUBLIC),
+            'd/K'             : compact('d/K', [], Opcodes.ACC_INTERFACE | Opcodes.ACC_ABSTRACT,
+                    Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT),
+            'd/A'             : compact('d/A', ['d/J', 'd/I'], Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT, null),
+            'd/B'             : compact('d/B', ['d/K', 'd/I'], Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT, null),
+    ]
+
+    private final DispatchTables tables = new DispatchTables(providerOf(CLASSES))
+
+    def "selects implementations"(final String receiver, final MethodSignature method, final String expected) {
+        expect:
+        this.tables.select(receiver, method).map { it.name }.orElse(null) == expected
+
+        where:
+        receiver | method | expected
+        'a/A'    | RUN    | 'a/I'
+        'a/A'    | STOP   | 'a/A'
+        'a/B'    | RUN    | 'a/J' // more specific than the inherited a/I
+        'a/B'    | HIDDEN | null  // private
+        'a/D'    | RUN    | 'a/C'
+        'a/D'    | STOP   | 'a/A'
+        'b/Z'    | RUN    | null
+    }
+
+    def "only overrides package-private methods within their package"(final String receiver, final String resolved,
+            final String expected) {
+        expect:
+        this.tables.select(receiver, resolved, RUN).map { it.name }.orElse(null) == expected
+
+        where:
+        receiver | resolved | expected
+        'q/B'    | 'q/B'    | 'q/B'
+        'q/B'    | 'p/A'    | 'p/A' // q/B#run doesn't override p/A#run
+        'p/C'    | 'p/A'    | 'p/C'
+        'p/C'    | 'q/B'    | 'p/C'
+    }
+
+    def "prefers default methods between unrelated interfaces"(final String receiver, final String expected) {
+        expect:
+        this.tables.select(receiver, RUN).map { it.name }.orElse(null) == expected
+
+        where:
+        receiver | expected
+        'd/A'    | 'd/J' // the default method, though d/I comes first by name
+        'd/B'    | 'd/I' // both abstract, so chosen by name
+    }
+
+    def "doesn't cache tables cut short by a cycle"() {
+        when:
+        this.tables.getTable('x/B')
+
+        then:
+        this.tables.getTable('x/A').get().keySet() == [RUN, STOP] as Set
+        this.tables.getTable('x/B').get().keySet() == [RUN, STOP] as Set
+    }
+
+    def "shares tables of classes adding nothing"() {
+        expect:
+        this.tables.getTable('a/D').get().is(this.tables.getTable('a/C').get())
+        !this.tables.getTable('a/C').get().is(this.tables.getTable('a/B').get())
+    }
+
+    def "selects over deep hierarchies"() {
+        given:
+        final Map<String, InheritanceProvider.ClassInfo> classes = [
+                'c/C0': info('c/C0', '', [], false, [(RUN): InheritanceType.PUBLIC])
+        ]
+        (1..64).each { classes["c/C$it" as String] = info("c/C$it", "c/C${it - 1}", [], false, [:]) }
+        final DispatchTables tables = new DispatchTables(providerOf(classes))
+
+        expect:
+        tables.select('c/C64', RUN).get().name == 'c/C0'
+        tables.getTable('c/C64').get().is(tables.getTable('c/C0').get())
+    }
+
+    static InheritanceProvider.ClassInfo compact(final String name, final List<String> interfaces, final int access,
+            final Integer runAccess) {
+        final Map<MethodSignature, Integer> methods = runAccess != null ? [(RUN): runAccess] : [:]
+        new CompactClassInfo(name, access, 'java/lang/Object', interfaces, [:] as Map<FieldSignature, Integer>, methods)
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.test.analysis
+
+import org.cadixdev.bombe.analysis.HierarchyFingerprints
+import org.cadixdev.bombe.analysis.IndexingInheritanceProvider
+import org.cadixdev.bombe.analysis.InheritanceProvider
+import org.cadixdev.bombe.analysis.InheritanceType
+import org.cadixdev.bombe.type.signature.MethodSignature
+import spock.lang.Specification
+
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.info
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.providerOf
+
+/**
+ * Tests for {@link HierarchyFingerprints}.
+ */
+class HierarchyFingerprintsSpec extends Specification {
+
+    private static final MethodSignature RUN = MethodSignature.of('run()V')
+    private static final MethodSignature STOP = MethodSignature.of('stop()V')
+
+    // java/lang/Object isn't indexed, as with the classes of a jar
+    private static final Map<String, InheritanceProvider.ClassInfo> CLASSES = [
+            'a/A': info('a/A', 'java/lang/Object', [(RUN): InheritanceType.PUBLIC]),
+            'a/B': info('a/B', 'a/A'),
+            'a/C': info('a/C', 'a/B'),
+            'a/D': info('a/D', 'java/lang/Object'),
+            'a/E': info('a/E', 'java/lang/Thread'),
+    ]
+
+    def "fingerprints ignore member order"() {
+        expect:
+        HierarchyFingerprints.fingerprint(info('a/A', '', [(RUN): InheritanceType.PUBLIC, (STOP): InheritanceType.NONE])) ==
+                HierarchyFingerprints.fingerprint(info('a/A', '', [(STOP): InheritanceType.NONE, (RUN): InheritanceType.PUBLIC]))
+        HierarchyFingerprints.fingerprint(info('a/A', '', [(RUN): InheritanceType.PUBLIC])) !=
+                HierarchyFingerprints.fingerprint(info('a/A', '', [(RUN): InheritanceType.PROTECTED]))
+    }
+
+    def "identical classpaths have no differences"() {
+        given:
+        final HierarchyFingerprints from = fingerprints(CLASSES)
+        final HierarchyFingerprints to = fingerprints(CLASSES)
+
+        expect:
+        from.getSubtreeFingerprint('a/A') == to.getSubtreeFingerprint('a/A')
+        !from.getSubtreeFingerprint('java/lang/Object').present
+        HierarchyFingerprints.diff(from, to).empty
+    }
+
+    def "finds changed, added and removed classes"() {
+        given:
+        final Map<String, InheritanceProvider.ClassInfo> changed = new HashMap<>(CLASSES)
+        changed['a/B'] = info('a/B', 'a/A', [(STOP): InheritanceType.PUBLIC])
+        changed['a/F'] = info('a/F', 'a/C')
+        changed.remove('a/D')
+        final HierarchyFingerprints from = fingerprints(CLASSES)
+        final HierarchyFingerprints to = fingerprints(changed)
+
+        expect:
+        HierarchyFingerprints.diff(from, to) == ['a/B', 'a/F', 'a/D'] as Set
+        HierarchyFingerprints.diff(to, from) == ['a/B', 'a/F', 'a/D'] as Set
+        from.getSubtreeFingerprint('a/A') != to.getSubtreeFingerprint('a/A')
+        from.getFingerprint('a/A') == to.getFingerprint('a/A')
+    }
+
+    def "fingerprints cyclic hierarchies regardless of order"() {
+        given:
+        final Map<String, InheritanceProvider.ClassInfo> classes = [
+                'x/A': info('x/A', 'x/B'),
+                'x/B': info('x/B', 'x/C'),
+                'x/C': info('x/C', 'x/A'),
+                'x/D': info('x/D', 'x/C'),
+        ]
+        final Map<String, InheritanceProvider.ClassInfo> reversed = new LinkedHashMap<>()
+        classes.keySet().toList().reverse().each { reversed[it] = classes[it] }
+        final HierarchyFingerprints from = fingerprints(classes)
+        final HierarchyFingerprints to = fingerprints(reversed)
+
+        expect:
+        classes.keySet().every { from.getSubtreeFingerprint(it) == to.getSubtreeFingerprint(it) }
+        HierarchyFingerprints.diff(from, to).empty
+        HierarchyFingerprints.diff(from, fingerprints(classes + ['x/D': info('x/D', 'x/A')])) == ['x/D'] as Set
+    }
+
+    static HierarchyFingerprints fingerprints(final Map<String, InheritanceProvider.ClassInfo> classes) {
+        final IndexingInheritanceProvider provider = new IndexingInheritanceProvider(providerOf(classes))
+        classes.keySet().each { provider.provide(it) }
+        HierarchyFingerprints.of(provider)
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.test.analysis
+
+import org.cadixdev.bombe.analysis.IndexingInheritanceProvider
+import org.cadixdev.bombe.analysis.InheritanceProvider
+import spock.lang.Specification
+
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.info
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.providerOf
+
+/**
+ * Tests for {@link IndexingInheritanceProvider}.
+ */
+class IndexingInheritanceProviderSpec extends Specification {
+
+    private static final Map<String, InheritanceProvider.ClassInfo> CLASSES = [
+            'java/lang/Object': info('java/lang/Object', ''),
+            'a/Iface'         : info('a/Iface', '', [], true),
+            'a/Base'          : info('a/Base', 'java/lang/Object', ['a/Iface']),
+            'a/Child'         : info('a/Child', 'a/Base'),
+            'b/Other'         : info('b/Other', 'java/lang/Object', ['a/Iface']),
+            'b/GrandChild'    : info('b/GrandChild', 'a/Child'),
+    ]
+
+    def "indexes provided classes"() {
+        given:
+        def provider = new IndexingInheritanceProvider(providerOf(CLASSES))
+        CLASSES.keySet().each { provider.provide(it) }
+
+        expect:
+        provider.isIndexed('a/Child')
+        !provider.isIndexed('c/Missing')
+        provider.getDirectChildren('a/Iface') == ['a/Base', 'b/Other'] as Set
+        provider.getDirectChildren('b/GrandChild').isEmpty()
+        provider.getChildren('a/Iface') == ['a/Base', 'a/Child', 'b/Other', 'b/GrandChild'] as Set
+        provider.getChildren('a/Base') == ['a/Child', 'b/GrandChild'] as Set
+    }
+
+    def "only indexes classes it has seen"() {
+        given:
+        def provider = new IndexingInheritanceProvider(providerOf(CLASSES))
+        provider.provide('a/Child')
+
+        expect:
+        provider.getChildren('java/lang/Object').isEmpty()
+        provider.getChildren('a/Base') == ['a/Child'] as Set
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.test.analysis
+
+import org.cadixdev.bombe.analysis.InMemoryInheritanceProvider
+import org.cadixdev.bombe.analysis.asm.ClassProviderInheritanceProvider
+import org.cadixdev.bombe.analysis.asm.InheritanceClassInfoVisitor
+import org.cadixdev.bombe.provider.ClassProvider
+import org.objectweb.asm.ClassReader
+import org.objectweb.asm.ClassWriter
+import org.objectweb.asm.tree.ClassNode
+import spock.lang.Specification
+
+/**
+ * Tests for {@link InheritanceClassInfoVisitor}.
+ */
+class InheritanceClassInfoVisitorSpec extends Specification {
+
+    private static final ClassProvider CLASSES = ClassProvider.of(InheritanceClassInfoVisitorSpec.classLoader)
+
+    def "registers classes during an existing pass"(final String klass) {
+        given:
+        final InMemoryInheritanceProvider provider = new InMemoryInheritanceProvider()
+        final ClassReader reader = new ClassReader(CLASSES.get(klass))
+        final ClassWriter writer = new ClassWriter(reader, 0)
+        reader.accept(new InheritanceClassInfoVisitor(writer, provider), 0)
+
+        final ClassProviderInheritanceProvider expected = new ClassProviderInheritanceProvider(CLASSES)
+        def info = provider.provide(klass).get()
+        def parsed = expected.provide(klass).get()
+
+        expect:
+        // The pass itself is unaffected
+        CLASSES.getAsNode(klass).methods*.name == node(writer.toByteArray()).methods*.name
+        info.name == parsed.name
+        info.interface == parsed.interface
+        info.superName == parsed.superName
+        info.interfaces == parsed.interfaces
+        info.fields == parsed.fields
+        info.fieldsByName == parsed.fieldsByName
+        info.methods == parsed.methods
+
+        where:
+        klass                                                   | _
+        'java/lang/Object'                                      | _
+        'java/util/ArrayList'                                   | _
+        'java/util/Map'                                         | _
+        'org/cadixdev/bombe/test/analysis/ClassInfoSpec'        | _
+    }
+
+    static ClassNode node(final byte[] bytes) {
+        final ClassNode node = new ClassNode()
+        new ClassReader(bytes).accept(node, 0)
+        node
+    }
+
+}
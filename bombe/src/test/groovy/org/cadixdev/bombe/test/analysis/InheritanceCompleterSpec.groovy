@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.test.analysis
+
+import org.cadixdev.bombe.analysis.InheritanceCompletable
+import org.cadixdev.bombe.analysis.InheritanceCompleter
+import org.cadixdev.bombe.analysis.InheritanceProvider
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.ForkJoinPool
+
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.info
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.providerOf
+
+/**
+ * Tests for {@link InheritanceCompleter}.
+ */
+class InheritanceCompleterSpec extends Specification {
+
+    private static final Map<String, InheritanceProvider.ClassInfo> CLASSES = [
+            'java/lang/Object': info('java/lang/Object', ''),
+            'Iface'           : info('Iface', '', [], true),
+            'Base'            : info('Base', 'java/lang/Object', ['Iface']),
+            'Child'           : info('Child', 'Base'),
+            'GrandChild'      : info('GrandChild', 'Child'),
+            'Other'           : info('Other', 'java/lang/Object', ['Iface']),
+            'CycleA'          : info('CycleA', 'CycleB'),
+            'CycleB'          : info('CycleB', 'CycleA'),
+            'CycleChild'      : info('CycleChild', 'CycleA'),
+            'CycleGrandChild' : info('CycleGrandChild', 'CycleChild'),
+            'Fails'           : info('Fails', 'java/lang/Object'),
+            'Slow'            : info('Slow', 'java/lang/Object'),
+    ]
+
+    private static final InheritanceProvider PROVIDER = providerOf(CLASSES)
+
+    def "completes parents first"() {
+        given:
+        def order = new ConcurrentLinkedQueue<String>()
+        def completables = ['GrandChild', 'Other', 'Child', 'CycleA', 'Iface', 'Base', 'CycleB'].collect {
+            new TestCompletable(it, order)
+        }
+        def done = new TestCompletable('java/lang/Object', order)
+        done.complete = true
+
+        when:
+        new InheritanceCompleter(PROVIDER).completeAll(completables + done)
+        def completed = order as List
+
+        then:
+        completed.size() == 7
+        completed.indexOf('Iface') < completed.indexOf('Base')
+        completed.indexOf('Iface') < completed.indexOf('Other')
+        completed.indexOf('Base') < completed.indexOf('Child')
+        completed.indexOf('Child') < completed.indexOf('GrandChild')
+        completables.every { it.complete }
+    }
+
+    def "completes the children of cycles parents first"() {
+        given:
+        def order = new ConcurrentLinkedQueue<String>()
+        def completables = ['CycleGrandChild', 'CycleChild', 'CycleA', 'CycleB'].collect {
+            new TestCompletable(it, order)
+        }
+
+        when:
+        new InheritanceCompleter(PROVIDER).completeAll(completables)
+        def completed = order as List
+
+        then:
+        completed.size() == 4
+        completed.indexOf('CycleA') < completed.indexOf('CycleChild')
+        completed.indexOf('CycleB') < completed.indexOf('CycleChild')
+        completed.indexOf('CycleChild') < completed.indexOf('CycleGrandChild')
+    }
+
+    def "waits for running completions before rethrowing"() {
+        given:
+        def order = new ConcurrentLinkedQueue<String>()
+        def slow = new TestCompletable('Slow', order)
+        slow.action = { Thread.sleep(200) }
+        def fails = new TestCompletable('Fails', order)
+        fails.action = { throw new IllegalStateException('Fails') }
+        def pool = new ForkJoinPool(2)
+
+        when:
+        new InheritanceCompleter(PROVIDER, null, pool).completeAll([slow, fails])
+
+        then:
+        final IllegalStateException ex = thrown()
+        ex.message == 'Fails'
+        order as List == ['Slow']
+
+        cleanup:
+        pool.shutdown()
+    }
+
+    static class TestCompletable implements InheritanceCompletable {
+
+        final String name
+        final Queue<String> order
+        boolean complete
+        Closure action = {}
+
+        TestCompletable(final String name, final Queue<String> order) {
+            this.name = name
+            this.order = order
+        }
+
+        @Override
+        Optional<InheritanceProvider.ClassInfo> provideInheritance(final InheritanceProvider provider, final Object context) {
+            provider.provide(this.name)
+        }
+
+        @Override
+        void complete(final InheritanceProvider provider, final InheritanceProvider.ClassInfo info) {
+            this.action.call()
+            this.order.add(this.name)
+            this.complete = true
+        }
+
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.test.analysis
+
+import org.cadixdev.bombe.analysis.InheritanceProvider
+import org.cadixdev.bombe.analysis.InheritanceType
+import org.cadixdev.bombe.type.signature.FieldSignature
+import org.cadixdev.bombe.type.signature.MethodSignature
+
+/**
+ * Fixtures shared between the specs of the inheritance analysis, for
+ * describing small class hierarchies.
+ */
+final class InheritanceFixtures {
+
+    /**
+     * Creates the information of a class.
+     */
+    static InheritanceProvider.ClassInfo info(final String name, final String superName, final List<String> interfaces = [],
+            final boolean isInterface = false, final Map<MethodSignature, InheritanceType> methods = [:],
+            final Map<FieldSignature, InheritanceType> fields = [:]) {
+        final Map<String, InheritanceType> fieldsByName = fields.collectEntries { k, v -> [(k.name): v] }
+        new InheritanceProvider.ClassInfo.Impl(name, isInterface, superName, interfaces, fields, fieldsByName, methods)
+    }
+
+    /**
+     * Creates the information of a class, extending only its super class.
+     */
+    static InheritanceProvider.ClassInfo info(final String name, final String superName,
+            final Map<MethodSignature, InheritanceType> methods) {
+        info(name, superName, [], false, methods)
+    }
+
+    /**
+     * Creates a provider of the given classes, by name. Later changes to
+     * the map are seen by the provider.
+     */
+    static InheritanceProvider providerOf(final Map<String, InheritanceProvider.ClassInfo> classes) {
+        { String klass -> Optional.ofNullable(classes[klass]) } as InheritanceProvider
+    }
+
+    private InheritanceFixtures() {
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.test.analysis
+
+import org.cadixdev.bombe.analysis.InMemoryInheritanceProvider
+import org.cadixdev.bombe.analysis.asm.JarInheritanceIndexer
+import org.objectweb.asm.ClassWriter
+import org.objectweb.asm.Opcodes
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.util.concurrent.ForkJoinPool
+import java.util.zip.ZipEntry
+import java.util.zip.ZipOutputStream
+
+/**
+ * Tests for {@link JarInheritanceIndexer}.
+ */
+class JarInheritanceIndexerSpec extends Specification {
+
+    private static final byte[] JAR = createJar()
+
+    def "indexes all classes of a jar"() {
+        when:
+        final InMemoryInheritanceProvider provider =
+                JarInheritanceIndexer.index(new ByteArrayInputStream(JAR), ForkJoinPool.commonPool())
+
+        then:
+        provider.classes.keySet() == (0..<100).collect { "pkg/Class$it" as String } as Set
+        provider.provide('pkg/Class42').get().superName == 'pkg/Class41'
+        provider.provide('pkg/Class0').get().interfaces == ['java/lang/Runnable']
+    }
+
+    def "indexes a jar from disk"() {
+        given:
+        def jar = Files.write(Files.createTempFile('bombe', '.jar'), JAR)
+
+        when:
+        final InMemoryInheritanceProvider provider = JarInheritanceIndexer.index(jar)
+
+        then:
+        provider.classes.size() == 100
+        provider.provide('pkg/Class99').present
+
+        cleanup:
+        Files.deleteIfExists(jar)
+    }
+
+    private static byte[] createJar() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream()
+        new ZipOutputStream(out).withCloseable { zip ->
+            zip.putNextEntry(new ZipEntry('META-INF/MANIFEST.MF'))
+            zip.write('Manifest-Version: 1.0\n'.bytes)
+            zip.putNextEntry(new ZipEntry('META-INF/versions/9/pkg/Class0.class'))
+            zip.write(createClass('pkg/Class0', 'java/lang/Object', []))
+            zip.putNextEntry(new ZipEntry('pkg/'))
+            (0..<100).each {
+                zip.putNextEntry(new ZipEntry("pkg/Class${it}.class"))
+                zip.write(it == 0 ?
+                        createClass('pkg/Class0', 'java/lang/Object', ['java/lang/Runnable']) :
+                        createClass("pkg/Class$it", "pkg/Class${it - 1}", []))
+            }
+            zip.putNextEntry(new ZipEntry('pkg/readme.txt'))
+            zip.write('Hello'.bytes)
+        }
+        out.toByteArray()
+    }
+
+    private static byte[] createClass(final String name, final String superName, final List<String> interfaces) {
+        final ClassWriter writer = new ClassWriter(0)
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, name, null, superName, interfaces as String[])
+        writer.visitEnd()
+        writer.toByteArray()
+    }
+
+}
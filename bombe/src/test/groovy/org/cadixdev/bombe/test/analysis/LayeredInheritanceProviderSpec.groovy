@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.test.analysis
+
+import org.cadixdev.bombe.analysis.InMemoryInheritanceProvider
+import org.cadixdev.bombe.analysis.InheritanceProvider
+import org.cadixdev.bombe.analysis.LayeredInheritanceProvider
+import spock.lang.Specification
+
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.info
+
+/**
+ * Tests for {@link LayeredInheritanceProvider}.
+ */
+class LayeredInheritanceProviderSpec extends Specification {
+
+    private static final List<InheritanceProvider.ClassInfo> LIBRARY = [
+            info('java/lang/Object', ''),
+            info('lib/Base', 'java/lang/Object'),
+            info('lib/Sub', 'lib/Base'),
+    ]
+
+    private final InheritanceProvider base = snapshot(LIBRARY)
+
+    def "shares the base between overlays"() {
+        given:
+        final LayeredInheritanceProvider first = new LayeredInheritanceProvider(this.base)
+        first.register(info('job/First', 'lib/Base'))
+        final LayeredInheritanceProvider second = new LayeredInheritanceProvider(this.base)
+        second.register(info('job/Second', 'lib/Base'))
+
+        expect:
+        first.provide('job/First').get().provideParents(first)*.name as Set == ['lib/Base', 'java/lang/Object'] as Set
+        second.provide('job/Second').get().provideParents(second)*.name as Set == ['lib/Base', 'java/lang/Object'] as Set
+        !first.provide('job/Second').present
+        !second.provide('job/First').present
+        first.provide('lib/Base').get().is(second.provide('lib/Base').get())
+    }
+
+    def "shares the parents of base classes between overlays"() {
+        given:
+        final LayeredInheritanceProvider first = new LayeredInheritanceProvider(this.base)
+        final LayeredInheritanceProvider second = new LayeredInheritanceProvider(this.base)
+
+        when:
+        final Set<InheritanceProvider.ClassInfo> parents = first.provide('lib/Sub').get().provideParents(first)
+
+        then:
+        parents*.name as Set == ['lib/Base', 'java/lang/Object'] as Set
+        second.provide('lib/Sub').get().provideParents(second).is(parents)
+    }
+
+    def "doesn't shadow the base"() {
+        given:
+        final LayeredInheritanceProvider overlay = new LayeredInheritanceProvider(this.base, { String klass ->
+            klass.startsWith('lib/') ? Optional.of(info(klass, 'job/Patched')) : Optional.empty()
+        } as InheritanceProvider)
+
+        when:
+        overlay.register(info('lib/Base', 'job/Patched'))
+
+        then:
+        thrown(IllegalArgumentException)
+        overlay.provide('lib/Base').get().superName == 'java/lang/Object'
+        overlay.provide('lib/Other').get().superName == 'job/Patched'
+    }
+
+    def "caches overlay misses"() {
+        given:
+        int calls = 0
+        final LayeredInheritanceProvider overlay = new LayeredInheritanceProvider(this.base, { String klass ->
+            calls++
+            Optional.empty()
+        } as InheritanceProvider)
+
+        when:
+        overlay.provide('job/Missing')
+        overlay.provide('job/Missing')
+
+        then:
+        calls == 1
+    }
+
+    def "snapshots are unaffected by later registrations"() {
+        given:
+        final InMemoryInheritanceProvider classes = new InMemoryInheritanceProvider()
+        classes.register(info('lib/Base', 'java/lang/Object'))
+        final InheritanceProvider snapshot = classes.snapshot()
+
+        when:
+        classes.register(info('lib/Base', 'lib/Other'))
+        classes.register(info('lib/New', 'java/lang/Object'))
+
+        then:
+        snapshot.provide('lib/Base').get().superName == 'java/lang/Object'
+        !snapshot.provide('lib/New').present
+    }
+
+    static InheritanceProvider snapshot(final List<InheritanceProvider.ClassInfo> classes) {
+        final InMemoryInheritanceProvider provider = new InMemoryInheritanceProvider()
+        classes.each { provider.register(it) }
+        provider.snapshot()
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.test.analysis
+
+import org.cadixdev.bombe.analysis.CompactClassInfo
+import org.cadixdev.bombe.analysis.InheritanceProvider
+import org.cadixdev.bombe.analysis.InheritanceType
+import org.cadixdev.bombe.analysis.MemberResolver
+import org.cadixdev.bombe.type.signature.FieldSignature
+import org.cadixdev.bombe.type.signature.MethodSignature
+import org.objectweb.asm.Opcodes
+import spock.lang.Specification
+
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.info
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.providerOf
+
+/**
+ * Tests for {@link MemberResolver}.
+ */
+class MemberResolverSpec extends Specification {
+
+    private static final FieldSignature FIELD = FieldSignature.of('x', 'I')
+    private static final MethodSignature RUN = MethodSignature.of('run()V')
+    private static final MethodSignature HASH_CODE = MethodSignature.of('hashCode()I')
+
+    private static final Map<String, InheritanceProvider.ClassInfo> CLASSES = [
+            'java/lang/Object': info('java/lang/Object', '', [], false, [(HASH_CODE): InheritanceType.PUBLIC], [:]),
+            'a/I'             : info('a/I', 'java/lang/Object', [], true, [(RUN): InheritanceType.PUBLIC], [(FIELD): InheritanceType.PUBLIC]),
+            'a/J'             : info('a/J', 'java/lang/Object', ['a/I'], true, [(RUN): InheritanceType.PUBLIC], [:]),
+            'a/K'             : info('a/K', 'java/lang/Object', ['a/I'], true, [:], [:]),
+            'a/A'             : info('a/A', 'java/lang/Object', [], false, [:], [(FIELD): InheritanceType.NONE]),
+            'a/B'             : info('a/B', 'a/A', ['a/J', 'a/K'], false, [:], [:]),
+            'a/C'             : info('a/C', 'java/lang/Object', ['a/I'], false, [:], [:]),
+            'b/P'             : iface('b/P', Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT),
+            'b/Q'             : iface('b/Q', Opcodes.ACC_PUBLIC),
+            'b/S'             : iface('b/S', Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC),
+            'b/D'             : new CompactClassInfo('b/D', Opcodes.ACC_PUBLIC, 'java/lang/Object', ['b/P', 'b/Q'], [:], [:]),
+            'b/E'             : new CompactClassInfo('b/E', Opcodes.ACC_PUBLIC, 'java/lang/Object', ['b/S'], [:], [:]),
+    ]
+
+    private final MemberResolver resolver = new MemberResolver(providerOf(CLASSES))
+
+    def "resolves fields"(final String owner, final String expected) {
+        expect:
+        this.resolver.resolveField(owner, FIELD).map { it.name }.orElse(null) == expected
+
+        where:
+        owner | expected
+        'a/A' | 'a/A'
+        'a/B' | 'a/I' // superinterfaces come before the super class
+        'a/C' | 'a/I'
+        'a/J' | 'a/I'
+        'b/Z' | null
+    }
+
+    def "resolves methods"(final String owner, final MethodSignature method, final String expected) {
+        expect:
+        this.resolver.resolveMethod(owner, method).map { it.name }.orElse(null) == expected
+
+        where:
+        owner | method    | expected
+        'a/B' | HASH_CODE | 'java/lang/Object'
+        'a/B' | RUN       | 'a/J' // a/J is more specific than a/I
+        'a/C' | RUN       | 'a/I'
+        'a/I' | RUN       | null // not a class
+        'b/D' | RUN       | 'b/Q' // the default method is preferred
+        'b/E' | RUN       | null // static interface methods aren't inherited
+    }
+
+    def "resolves interface methods"(final String owner, final MethodSignature method, final String expected) {
+        expect:
+        this.resolver.resolveInterfaceMethod(owner, method).map { it.name }.orElse(null) == expected
+
+        where:
+        owner | method    | expected
+        'a/J' | RUN       | 'a/J'
+        'a/K' | RUN       | 'a/I'
+        'a/K' | HASH_CODE | 'java/lang/Object'
+        'a/A' | RUN       | null // not an interface
+    }
+
+    def "memoizes results"() {
+        expect:
+        this.resolver.resolveMethod('a/B', RUN).get().is(this.resolver.resolveMethod('a/B', RUN).get())
+    }
+
+    static InheritanceProvider.ClassInfo iface(final String name, final int runAccess) {
+        new CompactClassInfo(name, Opcodes.ACC_PUBLIC | Opcodes.ACC_INTERFACE | Opcodes.ACC_ABSTRACT, 'java/lang/Object', [],
+                [:], [(RUN): runAccess])
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.test.analysis
+
+import org.cadixdev.bombe.analysis.CompactClassInfo
+import org.cadixdev.bombe.analysis.InheritanceProvider
+import org.cadixdev.bombe.analysis.InheritanceType
+import org.cadixdev.bombe.analysis.MethodFamilies
+import org.cadixdev.bombe.type.signature.MethodSignature
+import org.objectweb.asm.Opcodes
+import spock.lang.Specification
+
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.info
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.providerOf
+
+/**
+ * Tests for {@link MethodFamilies}.
+ */
+class MethodFamiliesSpec extends Specification {
+
+    private static final MethodSignature RUN = MethodSignature.of('run()V')
+
+    private static final Map<String, InheritanceProvider.ClassInfo> CLASSES = [
+            'java/lang/Object': info('java/lang/Object', '', [], false, [:]),
+            'a/I'             : info('a/I', 'java/lang/Object', [], true, [(RUN): InheritanceType.PUBLIC]),
+            'a/A'             : info('a/A', 'java/lang/Object', [], false, [(RUN): InheritanceType.PUBLIC]),
+            'a/B'             : info('a/B', 'a/A', ['a/I'], false, [:]), // a/A#run and a/I#run meet here
+            'a/C'             : info('a/C', 'a/B', [], false, [(RUN): InheritanceType.PUBLIC]),
+            'a/P'             : info('a/P', 'java/lang/Object', [], false, [(RUN): InheritanceType.PACKAGE_PRIVATE]),
+            'b/Q'             : info('b/Q', 'a/P', [], false, [(RUN): InheritanceType.PUBLIC]),
+            'a/R'             : info('a/R', 'b/Q', [], false, [:]), // sees both, but b/Q#run doesn't override a/P#run
+            'a/X'             : info('a/X', 'java/lang/Object', [], false, [(RUN): InheritanceType.NONE]),
+            'a/Y'             : info('a/Y', 'a/X', [], false, [(RUN): InheritanceType.PUBLIC]),
+            'c/I'             : info('c/I', 'java/lang/Object', [], true, [(RUN): InheritanceType.PUBLIC]),
+            'c/A'             : info('c/A', 'java/lang/Object', [], false, [(RUN): InheritanceType.PUBLIC]),
+            'c/B'             : info('c/B', 'c/A', ['c/I'], false, [:]), // nothing re-declares run below here
+            's/S'             : new CompactClassInfo('s/S', Opcodes.ACC_PUBLIC, 'java/lang/Object', [], [:],
+                    [(RUN): Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC]),
+            's/T'             : info('s/T', 's/S', [], false, [(RUN): InheritanceType.PUBLIC]),
+    ]
+
+    private final MethodFamilies families =
+            MethodFamilies.compute(providerOf(CLASSES), CLASSES.keySet().findAll { it != 'java/lang/Object' })
+
+    def "groups overriding methods"(final String klass, final List<String> expected) {
+        expect:
+        this.families.getDeclaringClasses(klass, RUN) as Set == expected as Set
+
+        where:
+        klass | expected
+        'a/I' | ['a/A', 'a/C', 'a/I']
+        'a/A' | ['a/A', 'a/C', 'a/I']
+        'a/C' | ['a/A', 'a/C', 'a/I']
+        'a/P' | ['a/P'] // package-private in another package
+        'b/Q' | ['b/Q']
+        'a/X' | ['a/X'] // private
+        'a/Y' | ['a/Y']
+        'a/B' | []      // not declared
+        'c/A' | ['c/A', 'c/I']
+        'c/I' | ['c/A', 'c/I']
+        's/S' | ['s/S'] // static
+        's/T' | ['s/T']
+    }
+
+    def "maps members onto families"() {
+        expect:
+        this.families.getFamily('a/I', RUN) == this.families.getFamily('a/C', RUN)
+        this.families.getFamily('a/I', RUN) != this.families.getFamily('a/Y', RUN)
+        this.families.getFamily('a/P', RUN) != this.families.getFamily('b/Q', RUN)
+        !this.families.getFamily('a/B', RUN).present
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.test.analysis
+
+import org.cadixdev.bombe.analysis.IndexingInheritanceProvider
+import org.cadixdev.bombe.analysis.InheritanceProvider
+import org.cadixdev.bombe.analysis.InheritanceType
+import org.cadixdev.bombe.analysis.OverrideResolver
+import org.cadixdev.bombe.type.signature.MethodSignature
+import spock.lang.Specification
+
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.info
+import static org.cadixdev.bombe.test.analysis.InheritanceFixtures.providerOf
+
+/**
+ * Tests for {@link OverrideResolver}.
+ */
+class OverrideResolverSpec extends Specification {
+
+    private static final MethodSignature RUN = MethodSignature.of('run()V')
+
+    private static final Map<String, InheritanceProvider.ClassInfo> CLASSES = [
+            'java/lang/Object': info('java/lang/Object', '', [:]),
+            'a/A'             : info('a/A', 'java/lang/Object', [(RUN): InheritanceType.PACKAGE_PRIVATE]),
+            'b/B'             : info('b/B', 'a/A', [(RUN): InheritanceType.PUBLIC]),
+            'a/C'             : info('a/C', 'b/B', [(RUN): InheritanceType.PUBLIC]),
+            'b/D'             : info('b/D', 'a/C', [(RUN): InheritanceType.PUBLIC]),
+            'b/E'             : info('b/E', 'b/B', [(RUN): InheritanceType.NONE]),
+    ]
+
+    private final IndexingInheritanceProvider provider = new IndexingInheritanceProvider(providerOf(CLASSES))
+    private final OverrideResolver resolver = new OverrideResolver(this.provider)
+
+    def setup() {
+        CLASSES.keySet().each { this.provider.provide(it) }
+    }
+
+    def "resolves overridden methods"(final String klass, final List<String> expected) {
+        expect:
+        this.resolver.getOverridden(klass, RUN)*.name as Set == expected as Set
+
+        where:
+        klass | expected
+        'a/A' | []
+        'b/B' | [] // package-private in another package
+        'a/C' | ['a/A', 'b/B']
+        'b/D' | ['a/A', 'b/B', 'a/C'] // a/A through a/C
+        'b/E' | [] // private
+    }
+
+    def "resolves overriding methods"(final String klass, final List<String> expected) {
+        expect:
+        this.resolver.getOverriding(klass, RUN)*.name as Set == expected as Set
+
+        where:
+        klass | expected
+        'a/A' | ['a/C', 'b/D']
+        'b/B' | ['a/C', 'b/D']
+        'a/C' | ['b/D']
+        'b/D' | []
+    }
+
+    def "memoizes the overridden methods of ancestors"() {
+        given:
+        int calls = 0
+        final Map<String, InheritanceProvider.ClassInfo> classes = [:]
+        (0..31).each {
+            classes["c/C$it" as String] = new InheritanceProvider.ClassInfo.Impl("c/C$it", false, it == 0 ? '' : "c/C${it - 1}", [],
+                    [:], [:], [(RUN): InheritanceType.PUBLIC]) {
+                @Override
+                Map<MethodSignature, InheritanceType> getMethods() {
+                    calls++
+                    super.getMethods()
+                }
+            }
+        }
+        final IndexingInheritanceProvider provider = new IndexingInheritanceProvider(providerOf(classes))
+        final OverrideResolver resolver = new OverrideResolver(provider)
+
+        when:
+        final Set<InheritanceProvider.ClassInfo> overridden = resolver.getOverridden('c/C31', RUN)
+        calls = 0
+
+        then:
+        overridden.size() == 31
+        (0..30).every { resolver.getOverridden("c/C$it", RUN).size() == it }
+        calls == 0
+    }
+
+    def "doesn't memoize methods cut short by a cycle"() {
+        given:
+        final Map<String, InheritanceProvider.ClassInfo> classes = [
+                'x/A': info('x/A', 'x/B', [(RUN): InheritanceType.PUBLIC]),
+                'x/B': info('x/B', 'x/A', [(RUN): InheritanceType.PUBLIC]),
+        ]
+        final IndexingInheritanceProvider provider = new IndexingInheritanceProvider(providerOf(classes))
+        final OverrideResolver first = new OverrideResolver(provider)
+        final OverrideResolver second = new OverrideResolver(provider)
+
+        when:
+        first.getOverridden('x/B', RUN)
+        second.getOverridden('x/A', RUN)
+
+        then:
+        first.getOverridden('x/A', RUN)*.name as Set == second.getOverridden('x/A', RUN)*.name as Set
+        first.getOverridden('x/B', RUN)*.name as Set == second.getOverridden('x/B', RUN)*.name as Set
+    }
+
+}
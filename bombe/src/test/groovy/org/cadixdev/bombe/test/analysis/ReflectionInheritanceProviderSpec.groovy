@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.test.analysis
+
+import org.cadixdev.bombe.analysis.ReflectionInheritanceProvider
+import org.cadixdev.bombe.type.signature.MethodSignature
+import org.objectweb.asm.ClassWriter
+import org.objectweb.asm.Opcodes
+import spock.lang.Specification
+
+/**
+ * Tests for {@link ReflectionInheritanceProvider}.
+ */
+class ReflectionInheritanceProviderSpec extends Specification {
+
+    def "shares class information between providers"() {
+        given:
+        def first = new ReflectionInheritanceProvider(ReflectionInheritanceProviderSpec.classLoader)
+        def second = new ReflectionInheritanceProvider(ReflectionInheritanceProviderSpec.classLoader)
+
+        expect:
+        first.provide('java/util/ArrayList').get().is(second.provide('java/util/ArrayList').get())
+        first.provide(ArrayList).is(first.provide('java/util/ArrayList').get())
+    }
+
+    def "loads members on demand"() {
+        given:
+        // gen/Broken has a method referring to gen/Missing, which can't be loaded
+        def loader = new BytesClassLoader(['gen.Broken': generate('gen/Broken', 'take', '(Lgen/Missing;)V')])
+        def provider = new ReflectionInheritanceProvider(loader)
+
+        when:
+        def info = provider.provide('gen/Broken').get()
+
+        then:
+        info.superName == 'java/lang/Object'
+        info.hasParent('java/lang/Object', provider)
+
+        when:
+        info.methods
+
+        then:
+        thrown(NoClassDefFoundError)
+    }
+
+    def "looks up missing classes again"() {
+        given:
+        def loader = new BytesClassLoader([:])
+        def provider = new ReflectionInheritanceProvider(loader)
+
+        expect:
+        !provider.provide('gen/Later').present
+
+        when:
+        loader.classes['gen.Later'] = generate('gen/Later', 'run', '()V')
+
+        then:
+        provider.provide('gen/Later').get().methods.containsKey(MethodSignature.of('run()V'))
+    }
+
+    static byte[] generate(final String name, final String method, final String desc) {
+        def writer = new ClassWriter(0)
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT, name, null, 'java/lang/Object', null)
+        writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT, method, desc, null, null).visitEnd()
+        writer.visitEnd()
+        writer.toByteArray()
+    }
+
+    static class BytesClassLoader extends ClassLoader {
+
+        final Map<String, byte[]> classes
+
+        BytesClassLoader(final Map<String, byte[]> classes) {
+            super(BytesClassLoader.classLoader)
+            this.classes = classes
+        }
+
+        @Override
+        protected Class<?> findClass(final String name) throws ClassNotFoundException {
+            final byte[] bytes = this.classes[name]
+            if (bytes == null) throw new ClassNotFoundException(name)
+            return this.defineClass(name, bytes, 0, bytes.length)
+        }
+
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018, Jamie Mansfield <https://jamiemansfield.me/>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ *  Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ *  Neither the name of the copyright holder nor the names of its
+ *   contributors may be used to endorse or promote products derived from
+ *   this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package org.cadixdev.bombe.test.jfr
+
+import org.cadixdev.bombe.analysis.asm.ClassProviderInheritanceProvider
+import org.cadixdev.bombe.jfr.FlightRecorderSupport
+import org.cadixdev.bombe.provider.ClassProvider
+import spock.lang.Requires
+import spock.lang.Specification
+
+/**
+ * Tests for {@link FlightRecorderSupport}.
+ */
+class FlightRecorderSupportSpec extends Specification {
+
+    @Requires({ jvm.java11Compatible })
+    def "is available where JFR is"() {
+        given:
+        def provider = new ClassProviderInheritanceProvider(ClassProvider.of(FlightRecorderSupportSpec.classLoader))
+
+        expect:
+        FlightRecorderSupport.available
+        provider.provide('java/util/ArrayList').get().hasParent('java/util/List', provider)
+    }
+
+    def "degrades where JFR is missing"() {
+        given:
+        def loader = new WithoutFlightRecorderClassLoader()
+        def support = loader.loadClass(FlightRecorderSupport.name)
+        def classes = loader.loadClass(ClassProvider.name).getMethod('of', ClassLoader).invoke(null, FlightRecorderSupportSpec.classLoader)
+        def provider = loader.loadClass(ClassProviderInheritanceProvider.name)
+                .getConstructor(loader.loadClass(ClassProvider.name))
+                .newInstance(classes)
+
+        expect:
+        !support.getMethod('isAvailable').invoke(null)
+        provider.provide('java/util/ArrayList').get().provideParents(provider)*.name.contains('java/util/List')
+    }
+
+    /**
+     * Loads Bombe's classes afresh, on a runtime without JFR.
+     */
+    static class WithoutFlightRecorderClassLoader extends ClassLoader {
+
+        WithoutFlightRecorderClassLoader() {
+            super(WithoutFlightRecorderClassLoader.classLoader)
+        }
+
+        @Override
+        protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+            if (name.startsWith('jdk.jfr.')) throw new ClassNotFoundException(name)
+            if (!name.startsWith('org.cadixdev.bombe.') || name.startsWith('org.cadixdev.bombe.test.')) {
+                return super.loadClass(name, resolve)
+            }
+
+            synchronized (this.getClassLoadingLock(name)) {
+                Class<?> klass = this.findLoadedClass(name)
+                if (klass == null) {
+                    final InputStream stream = this.parent.getResourceAsStream(name.replace('.', '/') + '.class')
+                    if (stream == null) throw new ClassNotFoundException(name)
+                    final byte[] bytes = stream.withCloseable { it.bytes }
+                    klass = this.defineClass(name, bytes, 0, bytes.length)
+                }
+                return klass
+            }
+        }
+
+    }
+
+}